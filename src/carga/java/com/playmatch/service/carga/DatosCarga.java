@@ -0,0 +1,201 @@
+package com.playmatch.service.carga;
+
+import com.playmatch.service.entity.AdministradorCancha;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.entity.Deporte;
+import com.playmatch.service.entity.Jugador;
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.entity.Role;
+import com.playmatch.service.entity.Usuario;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasCambiadasEnLoteEvent;
+import com.playmatch.service.repository.AdministradorCanchaRepository;
+import com.playmatch.service.repository.CanchaRepository;
+import com.playmatch.service.repository.JugadorRepository;
+import com.playmatch.service.repository.ReservaRepository;
+import com.playmatch.service.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Carga un administrador con sus canchas, jugadores y reservas historicas y futuras, con el mismo criterio
+ * que {@link com.playmatch.service.service.SeedDataService} pero a partir de una semilla fija: dos corridas
+ * con los mismos parametros arrancan con los mismos datos.
+ */
+final class DatosCarga {
+
+    static final String PASSWORD = "password123";
+    static final String EMAIL_ADMINISTRADOR = "admin@carga.playmatch";
+    // Centro de la zona donde se reparten las canchas
+    static final double LATITUD = -34.6037;
+    static final double LONGITUD = -58.3816;
+
+    private static final int LOTE = 500;
+    private static final int HORA_APERTURA = 8;
+    private static final int HORA_CIERRE = 23;
+
+    private static final String[] NOMBRES = {
+        "Juan", "María", "Carlos", "Ana", "Luis", "Laura", "Pedro", "Sofia",
+        "Diego", "Valentina", "Jorge", "Camila", "Ricardo", "Daniela", "Fernando"
+    };
+
+    private static final String[] APELLIDOS = {
+        "García", "Rodríguez", "Martínez", "López", "González", "Pérez", "Sánchez",
+        "Ramírez", "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Cruz", "Morales"
+    };
+
+    private static final Reserva.EstadoReserva[] ESTADOS = {
+        Reserva.EstadoReserva.CONFIRMADA,
+        Reserva.EstadoReserva.CONFIRMADA,
+        Reserva.EstadoReserva.CONFIRMADA,
+        Reserva.EstadoReserva.PENDIENTE,
+        Reserva.EstadoReserva.CANCELADA
+    };
+
+    private final UsuarioRepository usuarioRepository;
+    private final AdministradorCanchaRepository administradorCanchaRepository;
+    private final CanchaRepository canchaRepository;
+    private final JugadorRepository jugadorRepository;
+    private final ReservaRepository reservaRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Random random;
+
+    final List<Long> canchaIds = new ArrayList<>();
+    final List<String> emailsJugadores = new ArrayList<>();
+
+    DatosCarga(ConfigurableApplicationContext contexto, long semilla) {
+        this.usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        this.administradorCanchaRepository = contexto.getBean(AdministradorCanchaRepository.class);
+        this.canchaRepository = contexto.getBean(CanchaRepository.class);
+        this.jugadorRepository = contexto.getBean(JugadorRepository.class);
+        this.reservaRepository = contexto.getBean(ReservaRepository.class);
+        this.passwordEncoder = contexto.getBean(PasswordEncoder.class);
+        this.eventPublisher = contexto;
+        this.transactionTemplate = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        this.entityManager = contexto.getBean(EntityManager.class);
+        this.random = new Random(semilla);
+    }
+
+    void cargar(int canchas, int jugadores, int reservas, int diasHistoria, int diasFuturo) {
+        // Un solo hash para todos: BCrypt es deliberadamente lento y no es lo que se quiere medir al sembrar
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        List<Cancha> creadas = transactionTemplate.execute(status -> {
+            AdministradorCancha administrador = new AdministradorCancha();
+            administrador.setNombre("Administrador Carga");
+            administrador.setTelefono("+54 11 5555 0000");
+            administrador.setUsuario(usuario(EMAIL_ADMINISTRADOR, hash, Role.ADMINISTRADOR_CANCHA));
+            administradorCanchaRepository.save(administrador);
+
+            Deporte[] deportes = Deporte.values();
+            List<Cancha> lista = new ArrayList<>(canchas);
+            for (int i = 1; i <= canchas; i++) {
+                Cancha cancha = new Cancha();
+                cancha.setNombre("Cancha " + i);
+                cancha.setDireccion("Calle " + (100 + random.nextInt(9000)));
+                // Hasta unos 25 km del centro
+                cancha.setLatitud(LATITUD + (random.nextDouble() - 0.5) * 0.45);
+                cancha.setLongitud(LONGITUD + (random.nextDouble() - 0.5) * 0.55);
+                cancha.setPrecioHora(BigDecimal.valueOf(50 + random.nextInt(16) * 10L));
+                cancha.setHorarioApertura(LocalTime.of(HORA_APERTURA, 0));
+                cancha.setHorarioCierre(LocalTime.of(HORA_CIERRE, 0));
+                cancha.setTipo(deportes[random.nextInt(deportes.length)]);
+                cancha.setAdministradorCancha(administrador);
+                lista.add(canchaRepository.save(cancha));
+            }
+            return lista;
+        });
+        creadas.forEach(cancha -> canchaIds.add(cancha.getId()));
+
+        List<Jugador> jugadoresCreados = transactionTemplate.execute(status -> {
+            List<Jugador> lista = new ArrayList<>(jugadores);
+            for (int i = 1; i <= jugadores; i++) {
+                String email = "jugador" + i + "@carga.playmatch";
+                Jugador jugador = new Jugador();
+                jugador.setNombre(NOMBRES[random.nextInt(NOMBRES.length)] + " " + APELLIDOS[random.nextInt(APELLIDOS.length)]);
+                jugador.setTelefono("+54 9 11 " + (10000000 + random.nextInt(90000000)));
+                jugador.setUsuario(usuario(email, hash, Role.JUGADOR));
+                lista.add(jugadorRepository.save(jugador));
+                emailsJugadores.add(email);
+            }
+            return lista;
+        });
+
+        // Reservas de una o dos horas en punto, sin solapes por cancha; las futuras no se confirman todavia
+        LocalDate hoy = LocalDate.now();
+        Set<String> ocupadas = new HashSet<>();
+        List<Reserva> pendientesDeGuardar = new ArrayList<>(LOTE);
+        int generadas = 0;
+        for (int intento = 0; generadas < reservas && intento < reservas * 10; intento++) {
+            Cancha cancha = creadas.get(random.nextInt(creadas.size()));
+            LocalDate fecha = hoy.plusDays(random.nextInt(diasHistoria + diasFuturo + 1) - diasHistoria);
+            int hora = HORA_APERTURA + random.nextInt(HORA_CIERRE - HORA_APERTURA - 1);
+            int duracion = random.nextBoolean() ? 1 : 2;
+            if (!ocupadas.add(cancha.getId() + "/" + fecha + "/" + hora)
+                    || (duracion == 2 && !ocupadas.add(cancha.getId() + "/" + fecha + "/" + (hora + 1)))) {
+                continue;
+            }
+            Reserva reserva = new Reserva();
+            reserva.setCancha(cancha);
+            reserva.setJugador(jugadoresCreados.get(random.nextInt(jugadoresCreados.size())));
+            reserva.setInicio(LocalDateTime.of(fecha, LocalTime.of(hora, 0)));
+            reserva.setFin(reserva.getInicio().plusHours(duracion));
+            reserva.setEstado(fecha.isAfter(hoy) ? Reserva.EstadoReserva.PENDIENTE : ESTADOS[random.nextInt(ESTADOS.length)]);
+            reserva.setMonto(cancha.getPrecioHora().doubleValue() * duracion);
+            pendientesDeGuardar.add(reserva);
+            generadas++;
+            if (pendientesDeGuardar.size() == LOTE) {
+                guardar(pendientesDeGuardar);
+            }
+        }
+        guardar(pendientesDeGuardar);
+
+        // El catalogo no sigue los eventos en lote: se le avisa una vez por cancha al terminar
+        Long administradorId = creadas.get(0).getAdministradorCancha().getId();
+        creadas.forEach(cancha -> eventPublisher.publishEvent(new CanchaCambiadaEvent(cancha.getId(), administradorId, false)));
+    }
+
+    /**
+     * Guarda un lote y lo informa con un solo evento, como las operaciones masivas del servicio, asi el rollup
+     * suma un delta por cancha-dia. Antes de publicarlo se vacia el contexto de persistencia: cada UPDATE del
+     * rollup dispara un flush que, con el lote todavia adjunto, revisa las 500 reservas una y otra vez.
+     */
+    private void guardar(List<Reserva> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ReservaCambiadaEvent> creadas = reservaRepository.saveAll(lote).stream().map(ReservaCambiadaEvent::creada).toList();
+            entityManager.flush();
+            entityManager.clear();
+            eventPublisher.publishEvent(new ReservasCambiadasEnLoteEvent(creadas));
+        });
+        lote.clear();
+    }
+
+    private Usuario usuario(String email, String hash, Role role) {
+        Usuario usuario = new Usuario();
+        usuario.setEmail(email);
+        usuario.setPassword(hash);
+        usuario.setRole(role);
+        return usuarioRepository.save(usuario);
+    }
+}
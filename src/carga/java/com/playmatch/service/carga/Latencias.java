@@ -0,0 +1,68 @@
+package com.playmatch.service.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latencias de una operacion en nanosegundos. Cada cliente tiene las suyas y se juntan al final,
+ * asi el registro durante la prueba no compite por ningun lock.
+ */
+final class Latencias {
+
+    private long[] valores = new long[1024];
+    private int cantidad;
+    private int errores;
+    private int rechazadas;
+
+    void registrar(long nanos, int status) {
+        if (status >= 500 || status < 0) {
+            errores++;
+        } else if (status >= 400) {
+            // Conflictos de horario y validaciones: respuestas esperadas bajo carga, no fallas
+            rechazadas++;
+        }
+        if (cantidad == valores.length) {
+            valores = Arrays.copyOf(valores, cantidad * 2);
+        }
+        valores[cantidad++] = nanos;
+    }
+
+    void sumar(Latencias otras) {
+        if (cantidad + otras.cantidad > valores.length) {
+            valores = Arrays.copyOf(valores, cantidad + otras.cantidad);
+        }
+        System.arraycopy(otras.valores, 0, valores, cantidad, otras.cantidad);
+        cantidad += otras.cantidad;
+        errores += otras.errores;
+        rechazadas += otras.rechazadas;
+    }
+
+    /**
+     * Ordena las muestras; se llama una sola vez, antes de pedir percentiles.
+     */
+    void cerrar() {
+        Arrays.sort(valores, 0, cantidad);
+    }
+
+    int cantidad() {
+        return cantidad;
+    }
+
+    int errores() {
+        return errores;
+    }
+
+    int rechazadas() {
+        return rechazadas;
+    }
+
+    /**
+     * Percentil por rango mas cercano, en milisegundos.
+     */
+    double percentilMs(double percentil) {
+        if (cantidad == 0) {
+            return 0.0;
+        }
+        int indice = (int) Math.ceil(percentil / 100.0 * cantidad) - 1;
+        return valores[Math.max(0, Math.min(indice, cantidad - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,305 @@
+package com.playmatch.service.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playmatch.service.PlayMatchServiceApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prueba de carga de punta a punta sin servicios externos. Levanta la aplicacion en un puerto libre contra H2
+ * en memoria (o contra una base PostgreSQL dedicada), la siembra con {@link DatosCarga} y la castiga con
+ * clientes en hilos virtuales que mezclan login, busqueda de canchas, disponibilidad, creacion de reservas,
+ * listado del administrador y reportes. Informa cantidad, errores, throughput y p50/p99/p999 por operacion.
+ * Con {@code escenario=exportacion}, en cambio, descarga la exportacion completa del administrador
+ * (ver {@link PruebaExportacion}).
+ * <p>
+ * Los parametros se pasan como {@code clave=valor}; ver {@link #PARAMETROS} para los valores por defecto.
+ */
+public final class PruebaCarga {
+
+    private static final Map<String, String> PARAMETROS = new LinkedHashMap<>();
+
+    static {
+        // mezcla: clientes concurrentes con la mezcla de operaciones; exportacion: ver PruebaExportacion
+        PARAMETROS.put("escenario", "mezcla");
+        PARAMETROS.put("clientes", "100");
+        PARAMETROS.put("duracion", "PT60S");
+        PARAMETROS.put("calentamiento", "PT10S");
+        PARAMETROS.put("semilla", "42");
+        PARAMETROS.put("canchas", "50");
+        PARAMETROS.put("jugadores", "500");
+        PARAMETROS.put("reservas", "20000");
+        PARAMETROS.put("dias-historia", "180");
+        PARAMETROS.put("dias-futuro", "30");
+        // Descargas por formato en el escenario exportacion
+        PARAMETROS.put("repeticiones", "3");
+        // URL JDBC de una base PostgreSQL exclusiva para la prueba: el esquema se crea y se borra en cada corrida
+        PARAMETROS.put("postgres", "");
+        PARAMETROS.put("resultado", "target/carga-resultado.json");
+    }
+
+    /**
+     * Operaciones de la mezcla con su peso relativo.
+     */
+    enum Operacion {
+        LOGIN("POST /api/auth/login", 5),
+        BUSCAR_CANCHAS("GET /api/canchas/disponibles", 25),
+        DISPONIBILIDAD("GET /api/canchas/{id}/disponibilidad", 20),
+        CREAR_RESERVA("POST /api/reservas", 15),
+        LISTAR_ADMINISTRADOR("GET /api/reservas/administrador", 20),
+        REPORTE_RESERVAS("GET /api/reportes/reservas", 10),
+        REPORTE_AGRUPADO("GET /api/reportes/agrupado", 5);
+
+        final String nombre;
+        final int peso;
+
+        Operacion(String nombre, int peso) {
+            this.nombre = nombre;
+            this.peso = peso;
+        }
+    }
+
+    private final Map<String, String> parametros;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpClient http;
+    private String base;
+    private DatosCarga datos;
+    private String tokenAdministrador;
+
+    private PruebaCarga(Map<String, String> parametros) {
+        this.parametros = parametros;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new LinkedHashMap<>(PARAMETROS);
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0 || !PARAMETROS.containsKey(arg.substring(0, igual))) {
+                System.err.println("Parametro invalido: " + arg + ". Disponibles: " + PARAMETROS);
+                System.exit(2);
+            }
+            parametros.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        new PruebaCarga(parametros).correr();
+    }
+
+    private void correr() throws Exception {
+        String escenario = parametros.get("escenario");
+        if (!escenario.equals("mezcla") && !escenario.equals("exportacion")) {
+            throw new IllegalArgumentException("Escenario invalido: " + escenario + ". Valores permitidos: mezcla, exportacion");
+        }
+        try (ConfigurableApplicationContext contexto = iniciarAplicacion()) {
+            base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            long semilla = Long.parseLong(parametros.get("semilla"));
+
+            long inicioSiembra = System.nanoTime();
+            datos = new DatosCarga(contexto, semilla);
+            datos.cargar(entero("canchas"), entero("jugadores"), entero("reservas"),
+                    entero("dias-historia"), entero("dias-futuro"));
+            System.out.printf("Datos sembrados en %.1f s: %d canchas, %d jugadores, %d reservas%n",
+                    (System.nanoTime() - inicioSiembra) / 1e9, datos.canchaIds.size(), datos.emailsJugadores.size(),
+                    entero("reservas"));
+
+            try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+                http = HttpClient.newBuilder().executor(hilos).connectTimeout(Duration.ofSeconds(10)).build();
+                tokenAdministrador = login(DatosCarga.EMAIL_ADMINISTRADOR, null);
+                if (escenario.equals("exportacion")) {
+                    guardar("exportaciones", new PruebaExportacion(http, base, tokenAdministrador).correr(entero("repeticiones")));
+                    return;
+                }
+
+                Duration calentamiento = Duration.parse(parametros.get("calentamiento"));
+                Duration duracion = Duration.parse(parametros.get("duracion"));
+                long desdeMedicion = System.nanoTime() + calentamiento.toNanos();
+                long hasta = desdeMedicion + duracion.toNanos();
+
+                int clientes = entero("clientes");
+                List<Future<Map<Operacion, Latencias>>> resultados = new ArrayList<>(clientes);
+                for (int i = 0; i < clientes; i++) {
+                    int cliente = i;
+                    resultados.add(hilos.submit(() -> cliente(cliente, semilla, desdeMedicion, hasta)));
+                }
+                Map<Operacion, Latencias> totales = new EnumMap<>(Operacion.class);
+                for (Future<Map<Operacion, Latencias>> resultado : resultados) {
+                    resultado.get().forEach((operacion, latencias) ->
+                            totales.computeIfAbsent(operacion, o -> new Latencias()).sumar(latencias));
+                }
+                informar(totales, duracion);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext iniciarAplicacion() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--otel.enabled=false",
+                "--management.tracing.enabled=false",
+                "--logging.level.root=WARN"));
+        String postgres = parametros.get("postgres");
+        if (postgres.isBlank()) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:carga;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        } else {
+            // Usuario y clave salen de application.yml o de SPRING_DATASOURCE_USERNAME/PASSWORD
+            args.add("--spring.datasource.url=" + postgres);
+        }
+        return SpringApplication.run(PlayMatchServiceApplication.class, args.toArray(String[]::new));
+    }
+
+    /**
+     * Un cliente: entra como un jugador y elige operaciones al azar segun su peso hasta que se acaba el tiempo.
+     * Solo registra las que empiezan despues del calentamiento.
+     */
+    private Map<Operacion, Latencias> cliente(int cliente, long semilla, long desdeMedicion, long hasta) throws Exception {
+        SplittableRandom random = new SplittableRandom(semilla * 31 + cliente);
+        String email = datos.emailsJugadores.get(cliente % datos.emailsJugadores.size());
+        String tokenJugador = login(email, null);
+        int pesoTotal = 0;
+        for (Operacion operacion : Operacion.values()) {
+            pesoTotal += operacion.peso;
+        }
+
+        Map<Operacion, Latencias> latencias = new EnumMap<>(Operacion.class);
+        long ahora;
+        while ((ahora = System.nanoTime()) < hasta) {
+            Operacion operacion = elegir(random.nextInt(pesoTotal));
+            HttpRequest request = armar(operacion, random, email, tokenJugador);
+            int status;
+            try {
+                status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            long nanos = System.nanoTime() - ahora;
+            if (ahora >= desdeMedicion) {
+                latencias.computeIfAbsent(operacion, o -> new Latencias()).registrar(nanos, status);
+            }
+        }
+        return latencias;
+    }
+
+    private static Operacion elegir(int sorteo) {
+        for (Operacion operacion : Operacion.values()) {
+            if (sorteo < operacion.peso) {
+                return operacion;
+            }
+            sorteo -= operacion.peso;
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest armar(Operacion operacion, SplittableRandom random, String email, String tokenJugador) throws IOException {
+        long canchaId = datos.canchaIds.get(random.nextInt(datos.canchaIds.size()));
+        LocalDate hoy = LocalDate.now();
+        return switch (operacion) {
+            case LOGIN -> post("/api/auth/login", Map.of("email", email, "password", DatosCarga.PASSWORD), null);
+            case BUSCAR_CANCHAS -> get("/api/canchas/disponibles?lat=" + (DatosCarga.LATITUD + (random.nextDouble() - 0.5) * 0.2)
+                    + "&lng=" + (DatosCarga.LONGITUD + (random.nextDouble() - 0.5) * 0.2) + "&radioKm=" + (2 + random.nextInt(9)), tokenJugador);
+            case DISPONIBILIDAD -> get("/api/canchas/" + canchaId + "/disponibilidad?desde=" + hoy.plusDays(random.nextInt(14))
+                    + "&hasta=" + hoy.plusDays(14 + random.nextInt(14)), tokenJugador);
+            case CREAR_RESERVA -> {
+                // Horas en punto dentro del horario de las canchas sembradas; los choques devuelven 400
+                var inicio = hoy.plusDays(1 + random.nextInt(30)).atTime(8 + random.nextInt(14), 0);
+                yield post("/api/reservas", Map.of("canchaId", canchaId, "inicio", inicio.toString(),
+                        "fin", inicio.plusHours(1).toString()), tokenJugador);
+            }
+            case LISTAR_ADMINISTRADOR -> get("/api/reservas/administrador?limite=50&ordenarPor="
+                    + (random.nextBoolean() ? "fecha" : "monto") + "&fechaDesde=" + hoy.minusDays(random.nextInt(90)), tokenAdministrador);
+            case REPORTE_RESERVAS -> get("/api/reportes/reservas?canchaId=" + canchaId + "&periodo="
+                    + (random.nextBoolean() ? "semana" : "mes"), tokenAdministrador);
+            case REPORTE_AGRUPADO -> get("/api/reportes/agrupado?agrupacion="
+                    + (random.nextBoolean() ? "dia" : "hora") + "&fechaDesde=" + hoy.minusDays(180), tokenAdministrador);
+        };
+    }
+
+    private String login(String email, String token) throws Exception {
+        HttpResponse<String> respuesta = http.send(post("/api/auth/login",
+                Map.of("email", email, "password", DatosCarga.PASSWORD), token), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("No se pudo iniciar sesion como " + email + ": " + respuesta.body());
+        }
+        return objectMapper.readTree(respuesta.body()).get("token").asText();
+    }
+
+    private HttpRequest get(String ruta, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + ruta)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String ruta, Object cuerpo, String token) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + ruta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(cuerpo)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private void informar(Map<Operacion, Latencias> totales, Duration duracion) throws IOException {
+        double segundos = duracion.toNanos() / 1e9;
+        List<Map<String, Object>> filas = new ArrayList<>();
+        System.out.printf("%n%-40s %9s %8s %10s %9s %9s %9s %9s%n",
+                "Operacion", "Cantidad", "Errores", "Rechazadas", "Req/s", "p50 ms", "p99 ms", "p999 ms");
+        for (Operacion operacion : Operacion.values()) {
+            Latencias latencias = totales.getOrDefault(operacion, new Latencias());
+            latencias.cerrar();
+            System.out.printf("%-40s %9d %8d %10d %9.1f %9.2f %9.2f %9.2f%n", operacion.nombre, latencias.cantidad(),
+                    latencias.errores(), latencias.rechazadas(), latencias.cantidad() / segundos,
+                    latencias.percentilMs(50), latencias.percentilMs(99), latencias.percentilMs(99.9));
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("operacion", operacion.nombre);
+            fila.put("cantidad", latencias.cantidad());
+            fila.put("errores", latencias.errores());
+            fila.put("rechazadas", latencias.rechazadas());
+            fila.put("throughput", latencias.cantidad() / segundos);
+            fila.put("p50Ms", latencias.percentilMs(50));
+            fila.put("p99Ms", latencias.percentilMs(99));
+            fila.put("p999Ms", latencias.percentilMs(99.9));
+            filas.add(fila);
+        }
+        guardar("operaciones", filas);
+    }
+
+    private void guardar(String clave, List<Map<String, Object>> filas) throws IOException {
+        Path resultado = Path.of(parametros.get("resultado"));
+        if (resultado.getParent() != null) {
+            Files.createDirectories(resultado.getParent());
+        }
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("parametros", parametros);
+        informe.put(clave, filas);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultado.toFile(), informe);
+        System.out.println("Resultado guardado en " + resultado);
+    }
+
+    private int entero(String parametro) {
+        return Integer.parseInt(parametros.get(parametro));
+    }
+}
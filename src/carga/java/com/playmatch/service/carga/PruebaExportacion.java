@@ -0,0 +1,135 @@
+package com.playmatch.service.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escenario {@code exportacion} de {@link PruebaCarga}: descarga completa la exportacion del administrador
+ * en cada formato, una corrida a la vez, y mide el tiempo hasta el primer byte, el tiempo total y el pico
+ * de heap por encima del que habia al empezar. La aplicacion corre en la misma JVM, asi que el heap medido
+ * es el del servidor; el cliente solo cuenta bytes y filas, sin guardar el cuerpo.
+ */
+final class PruebaExportacion {
+
+    private static final String[] FORMATOS = {"csv", "ndjson"};
+    private static final long MUESTREO_MILLIS = 5;
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final HttpClient http;
+    private final String base;
+    private final String token;
+    private final MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+
+    PruebaExportacion(HttpClient http, String base, String token) {
+        this.http = http;
+        this.base = base;
+        this.token = token;
+    }
+
+    List<Map<String, Object>> correr(int repeticiones) throws Exception {
+        List<Map<String, Object>> filas = new ArrayList<>();
+        System.out.printf("%n%-8s %4s %7s %10s %10s %10s %10s %9s %12s%n",
+                "Formato", "Rep", "Status", "Filas", "MB", "TTFB ms", "Total ms", "MB/s", "Heap pico MB");
+        for (String formato : FORMATOS) {
+            for (int repeticion = 1; repeticion <= repeticiones; repeticion++) {
+                Map<String, Object> fila = exportar(formato, repeticion);
+                System.out.printf("%-8s %4d %7d %10d %10.1f %10.1f %10.1f %9.1f %12.1f%n", formato, repeticion,
+                        fila.get("status"), fila.get("filas"), fila.get("mb"), fila.get("ttfbMs"), fila.get("totalMs"),
+                        fila.get("mbPorSegundo"), fila.get("heapPicoMb"));
+                filas.add(fila);
+            }
+        }
+        return filas;
+    }
+
+    private Map<String, Object> exportar(String formato, int repeticion) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/reservas/administrador/exportar?formato=" + formato))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        // Punto de partida del heap sin la basura de la corrida anterior
+        System.gc();
+        long heapInicial = memoria.getHeapMemoryUsage().getUsed();
+        MuestreoHeap muestreo = new MuestreoHeap();
+        Thread hilo = Thread.ofPlatform().daemon().name("muestreo-heap").start(muestreo);
+
+        long inicio = System.nanoTime();
+        long primerByte = -1;
+        long bytes = 0;
+        long lineas = 0;
+        int status;
+        try {
+            HttpResponse<InputStream> respuesta = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            status = respuesta.statusCode();
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream cuerpo = respuesta.body()) {
+                int leidos;
+                while ((leidos = cuerpo.read(buffer)) >= 0) {
+                    if (primerByte < 0 && leidos > 0) {
+                        primerByte = System.nanoTime();
+                    }
+                    bytes += leidos;
+                    for (int i = 0; i < leidos; i++) {
+                        if (buffer[i] == '\n') {
+                            lineas++;
+                        }
+                    }
+                }
+            }
+        } finally {
+            muestreo.detener();
+            hilo.join();
+        }
+        long fin = System.nanoTime();
+
+        double totalMs = (fin - inicio) / 1e6;
+        Map<String, Object> fila = new LinkedHashMap<>();
+        fila.put("formato", formato);
+        fila.put("repeticion", repeticion);
+        fila.put("status", status);
+        // El CSV lleva una linea de encabezado
+        fila.put("filas", "csv".equals(formato) ? Math.max(0, lineas - 1) : lineas);
+        fila.put("mb", bytes / MB);
+        fila.put("ttfbMs", primerByte < 0 ? -1.0 : (primerByte - inicio) / 1e6);
+        fila.put("totalMs", totalMs);
+        fila.put("mbPorSegundo", bytes / MB / (totalMs / 1000));
+        fila.put("heapPicoMb", Math.max(0, muestreo.maximo - heapInicial) / MB);
+        return fila;
+    }
+
+    /**
+     * Heap usado maximo observado mientras corre la exportacion.
+     */
+    private final class MuestreoHeap implements Runnable {
+        private volatile boolean activo = true;
+        private volatile long maximo;
+
+        @Override
+        public void run() {
+            while (activo) {
+                maximo = Math.max(maximo, memoria.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(MUESTREO_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void detener() {
+            maximo = Math.max(maximo, memoria.getHeapMemoryUsage().getUsed());
+            activo = false;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.playmatch.service.security;
+
+import com.playmatch.service.entity.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validacion del token que hace el filtro JWT en cada request autenticado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        tokenProvider = new JwtTokenProvider("01234567890123456789012345678901", 7200);
+        token = tokenProvider.generateToken("admin@playmatch.com", Role.ADMINISTRADOR_CANCHA);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return tokenProvider.getUsername(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken("admin@playmatch.com", Role.ADMINISTRADOR_CANCHA);
+    }
+}
@@ -0,0 +1,76 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.CanchaResponse;
+import com.playmatch.service.entity.Deporte;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parte en memoria de {@code GET /api/canchas/disponibles} sobre un snapshot del catalogo con 10k canchas:
+ * la grilla de {@link GrillaCanchas} y los filtros de {@link CanchaService#filtrarCatalogo}. El recorrido
+ * calculando la distancia a todas las canchas queda como linea de base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusquedaCanchasBenchmark {
+
+    private static final double LATITUD = -34.6037;
+    private static final double LONGITUD = -58.3816;
+    // Igual que playmatch.canchas.indice.celda-km
+    private static final double CELDA_KM = 5;
+
+    @Param({"2", "10", "50"})
+    public double radioKm;
+
+    private CatalogoCanchas.Snapshot catalogo;
+    private double[][] coordenadas;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+
+    @Setup
+    public void preparar() {
+        catalogo = DatosSinteticos.catalogo(CELDA_KM);
+        coordenadas = DatosSinteticos.coordenadas();
+        inicio = LocalDate.now().plusDays(1).atTime(19, 0);
+        fin = inicio.plusHours(1);
+    }
+
+    @Benchmark
+    public List<CanchaResponse> catalogo() {
+        return CanchaService.filtrarCatalogo(catalogo, LATITUD, LONGITUD, radioKm, null, null, null);
+    }
+
+    @Benchmark
+    public List<CanchaResponse> catalogoConHorarioYDeporte() {
+        return CanchaService.filtrarCatalogo(catalogo, LATITUD, LONGITUD, radioKm, inicio, fin, Deporte.FUTBOL);
+    }
+
+    @Benchmark
+    public int fuerzaBruta() {
+        int dentro = 0;
+        for (double[] cancha : coordenadas) {
+            if (GeoUtils.distanciaKm(LATITUD, LONGITUD, cancha[0], cancha[1]) <= radioKm) {
+                dentro++;
+            }
+        }
+        return dentro;
+    }
+}
@@ -0,0 +1,148 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.CanchaResponse;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.entity.Deporte;
+import com.playmatch.service.entity.Reserva;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Datos deterministas para los benchmarks: la misma semilla genera siempre las mismas canchas y reservas,
+ * asi los resultados de dos commits se pueden comparar.
+ */
+final class DatosSinteticos {
+
+    static final long SEMILLA = 20240601L;
+    static final int CANCHAS = 10_000;
+    static final int RESERVAS = 1_000_000;
+    // Tres años de reservas terminando hoy
+    static final int DIAS = 3 * 365;
+
+    private static final Reserva.EstadoReserva[] ESTADOS = Reserva.EstadoReserva.values();
+
+    private DatosSinteticos() {
+    }
+
+    static LocalDate primerDia() {
+        return LocalDate.now().minusDays(DIAS - 1L);
+    }
+
+    /**
+     * Recibe cada reserva generada, en orden de inicio.
+     */
+    interface Destino {
+        void agregar(long id, int canchaId, LocalDateTime inicio, LocalDateTime fin, Reserva.EstadoReserva estado, double monto);
+    }
+
+    /**
+     * Genera las reservas ordenadas por inicio, igual que la carga desde la base. Cada reserva dura
+     * 60 o 90 minutos, empieza entre las 8 y las 23 y cae en una cancha al azar.
+     */
+    static void generar(Destino destino) {
+        SplittableRandom random = new SplittableRandom(SEMILLA);
+        LocalDate primero = primerDia();
+        long id = 1;
+        for (int dia = 0; dia < DIAS; dia++) {
+            int delDia = RESERVAS / DIAS + (dia < RESERVAS % DIAS ? 1 : 0);
+            LocalDateTime inicioDia = primero.plusDays(dia).atStartOfDay();
+            for (int i = 0; i < delDia; i++) {
+                // Inicios repartidos entre las 8 y las 23, crecientes para respetar el orden por inicio
+                LocalDateTime inicio = inicioDia.plusMinutes(8 * 60 + (long) i * 15 * 60 / delDia);
+                LocalDateTime fin = inicio.plusMinutes(random.nextBoolean() ? 60 : 90);
+                Reserva.EstadoReserva estado = ESTADOS[random.nextInt(10) < 7 ? 1 : random.nextInt(ESTADOS.length)];
+                destino.agregar(id++, 1 + random.nextInt(CANCHAS), inicio, fin, estado, 5_000.0 + random.nextInt(20) * 500);
+            }
+        }
+    }
+
+    /**
+     * Las reservas generadas en el almacen columnar.
+     */
+    static ColumnasReservas columnas() {
+        ColumnasReservas columnas = new ColumnasReservas();
+        generar(columnas::agregar);
+        columnas.marcarOrdenadas();
+        columnas.cargadaEn = LocalDateTime.now();
+        return columnas;
+    }
+
+    /**
+     * Las mismas reservas como entidades, colgando de sus canchas igual que las devuelve JPA.
+     * La cancha con id {@code n} queda en la posicion {@code n - 1}.
+     */
+    static List<Cancha> canchasConReservas() {
+        List<Cancha> canchas = new ArrayList<>(CANCHAS);
+        for (int i = 0; i < CANCHAS; i++) {
+            Cancha cancha = new Cancha();
+            cancha.setNombre("Cancha " + (i + 1));
+            cancha.setReservas(new HashSet<>());
+            canchas.add(cancha);
+        }
+        generar((id, canchaId, inicio, fin, estado, monto) -> {
+            Cancha cancha = canchas.get(canchaId - 1);
+            Reserva reserva = new Reserva();
+            reserva.setCancha(cancha);
+            reserva.setInicio(inicio);
+            reserva.setFin(fin);
+            reserva.setEstado(estado);
+            reserva.setMonto(monto);
+            cancha.getReservas().add(reserva);
+        });
+        return canchas;
+    }
+
+    /**
+     * Coordenadas de las canchas repartidas en un cuadrado de unos 200 km alrededor de Buenos Aires.
+     */
+    static double[][] coordenadas() {
+        SplittableRandom random = new SplittableRandom(SEMILLA);
+        double[][] coordenadas = new double[CANCHAS][2];
+        for (int i = 0; i < CANCHAS; i++) {
+            coordenadas[i][0] = -34.6 + (random.nextDouble() - 0.5) * 1.8;
+            coordenadas[i][1] = -58.4 + (random.nextDouble() - 0.5) * 2.2;
+        }
+        return coordenadas;
+    }
+
+    /**
+     * Snapshot del catalogo con las canchas en las {@link #coordenadas()}, armado igual que en
+     * {@link CatalogoCanchas}: ids 1..n, deporte al azar y una ventana de apertura de entre 8 y 12 horas.
+     */
+    static CatalogoCanchas.Snapshot catalogo(double celdaKm) {
+        SplittableRandom random = new SplittableRandom(SEMILLA);
+        Deporte[] deportes = Deporte.values();
+        double[][] coordenadas = coordenadas();
+        List<CanchaResponse> respuestas = new ArrayList<>(CANCHAS);
+        Map<Long, CanchaResponse> porId = new HashMap<>(CANCHAS * 2);
+        Map<Long, HorarioCompilado> horarios = new HashMap<>(CANCHAS * 2);
+        for (int i = 0; i < CANCHAS; i++) {
+            Cancha cancha = new Cancha();
+            cancha.setNombre("Cancha " + (i + 1));
+            cancha.setLatitud(coordenadas[i][0]);
+            cancha.setLongitud(coordenadas[i][1]);
+            cancha.setTipo(deportes[random.nextInt(deportes.length)]);
+            LocalTime apertura = LocalTime.of(8 + random.nextInt(4), 0);
+            cancha.setHorarioApertura(apertura);
+            cancha.setHorarioCierre(apertura.plusHours(8 + random.nextInt(5)));
+            HorarioCompilado horario = HorarioCompilado.de(cancha);
+            CanchaResponse respuesta = CanchaService.toResponse(cancha, horario, false);
+            long id = i + 1L;
+            respuesta.setId(id);
+            respuestas.add(respuesta);
+            porId.put(id, respuesta);
+            horarios.put(id, horario);
+        }
+        List<CanchaResponse> inmutables = List.copyOf(respuestas);
+        return new CatalogoCanchas.Snapshot(inmutables, Map.copyOf(porId), Map.copyOf(horarios),
+                new GrillaCanchas(celdaKm, inmutables), LocalDateTime.MAX);
+    }
+}
@@ -0,0 +1,73 @@
+package com.playmatch.service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupaciones del reporte sobre el almacen columnar con 1M de reservas en 10k canchas,
+ * para rangos de un mes, un año y los tres años completos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReporteAgrupadoBenchmark {
+
+    @Param({"30", "365", "1095"})
+    public int dias;
+
+    private ColumnasReservas columnas;
+    private int desdeDia;
+    private int hastaDia;
+    private long ahoraMinuto;
+
+    @Setup
+    public void preparar() {
+        columnas = DatosSinteticos.columnas();
+        LocalDate hasta = LocalDate.now();
+        hastaDia = (int) hasta.toEpochDay();
+        desdeDia = hastaDia - dias + 1;
+        ahoraMinuto = ReservaColumnStore.minutoEnCurso(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public ColumnasReservas.Totales porDia() {
+        return columnas.totalizar(ReservaColumnStore.Agrupacion.DIA, desdeDia, hastaDia, null, ahoraMinuto);
+    }
+
+    @Benchmark
+    public ColumnasReservas.Totales porHora() {
+        return columnas.totalizar(ReservaColumnStore.Agrupacion.HORA, desdeDia, hastaDia, null, ahoraMinuto);
+    }
+
+    @Benchmark
+    public ColumnasReservas.Totales porCancha() {
+        return columnas.totalizar(ReservaColumnStore.Agrupacion.CANCHA, desdeDia, hastaDia, null, ahoraMinuto);
+    }
+
+    @Benchmark
+    public ColumnasReservas.Totales porDiaDeUnaCancha() {
+        return columnas.totalizar(ReservaColumnStore.Agrupacion.DIA, desdeDia, hastaDia, 1L, ahoraMinuto);
+    }
+
+    @Benchmark
+    public Map<Long, ColumnasReservas.Ocupacion> ocupacionPorHora() {
+        return columnas.ocupacion(desdeDia, hastaDia, 1L, ahoraMinuto, 60);
+    }
+}
@@ -0,0 +1,58 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.ReporteReservasResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combinacion de los parciales por cancha en el reporte mensual de un administrador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReporteParcialBenchmark {
+
+    @Param({"40", "10000"})
+    public int canchas;
+
+    private List<ReporteParcial> parciales;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom random = new SplittableRandom(DatosSinteticos.SEMILLA);
+        LocalDate desde = LocalDate.now().minusDays(30);
+        parciales = new ArrayList<>(canchas);
+        for (int c = 0; c < canchas; c++) {
+            ReporteParcial parcial = new ReporteParcial();
+            for (int dia = 0; dia <= 30; dia++) {
+                if (random.nextInt(4) != 0) {
+                    parcial.sumarDia(desde.plusDays(dia), 1 + random.nextInt(12), random.nextInt(60_000));
+                }
+            }
+            parciales.add(parcial);
+        }
+    }
+
+    @Benchmark
+    public List<ReporteReservasResponse> combinar() {
+        return parciales.stream().reduce(new ReporteParcial(), ReporteParcial::combinar).porDia();
+    }
+}
@@ -0,0 +1,101 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.ReporteReservasResponse;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.entity.Reserva;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Linea de base de {@link ReporteAgrupadoBenchmark}: las mismas agrupaciones sobre las mismas reservas
+ * de {@link DatosSinteticos}, pero como las calculaba ReporteService antes del almacen columnar, con streams
+ * sobre las entidades colgadas de cada cancha. Los metodos tienen los mismos nombres para comparar fila a fila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReporteStreamsBenchmark {
+
+    @Param({"30", "365", "1095"})
+    public int dias;
+
+    private List<Cancha> canchas;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private LocalDateTime ahora;
+
+    @Setup
+    public void preparar() {
+        canchas = DatosSinteticos.canchasConReservas();
+        hasta = LocalDate.now();
+        desde = hasta.minusDays(dias - 1L);
+        ahora = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public List<ReporteReservasResponse> porDia() {
+        return totalizar(reservas(canchas.stream()), r -> r.getInicio().toLocalDate());
+    }
+
+    @Benchmark
+    public List<ReporteReservasResponse> porHora() {
+        return totalizar(reservas(canchas.stream()), r -> r.getInicio().getHour());
+    }
+
+    @Benchmark
+    public List<ReporteReservasResponse> porCancha() {
+        return totalizar(reservas(canchas.stream()), Reserva::getCancha);
+    }
+
+    @Benchmark
+    public List<ReporteReservasResponse> porDiaDeUnaCancha() {
+        return totalizar(reservas(Stream.of(canchas.get(0))), r -> r.getInicio().toLocalDate());
+    }
+
+    private Stream<Reserva> reservas(Stream<Cancha> canchas) {
+        return canchas
+                .flatMap(cancha -> cancha.getReservas().stream())
+                .filter(r -> !r.getInicio().toLocalDate().isBefore(desde) && !r.getInicio().toLocalDate().isAfter(hasta));
+    }
+
+    /**
+     * Agrupa y suma como el reporte original: cantidad de reservas y recaudado de las confirmadas ya terminadas.
+     */
+    private <K> List<ReporteReservasResponse> totalizar(Stream<Reserva> reservas, Function<Reserva, K> clave) {
+        Map<K, List<Reserva>> grupos = reservas.collect(Collectors.groupingBy(clave));
+        return grupos.values().stream()
+                .map(grupo -> new ReporteReservasResponse(
+                        grupo.get(0).getInicio().toLocalDate(),
+                        null,
+                        null,
+                        grupo.size(),
+                        grupo.stream()
+                                .filter(r -> r.getEstado() == Reserva.EstadoReserva.CONFIRMADA && r.getFin().isBefore(ahora))
+                                .mapToDouble(r -> r.getMonto() != null ? r.getMonto() : 0.0)
+                                .sum()))
+                .sorted(Comparator.comparing(ReporteReservasResponse::getFecha))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,9 +1,18 @@
 package com.playmatch.service.controller;
 
+import com.playmatch.service.dto.CanchaCercanaResponse;
 import com.playmatch.service.dto.CanchaRequest;
 import com.playmatch.service.dto.CanchaResponse;
+import com.playmatch.service.dto.FranjaDisponibleResponse;
+import com.playmatch.service.dto.PaginaCanchasCercanas;
 import com.playmatch.service.service.CanchaService;
+import com.playmatch.service.service.CatalogoVersion;
+import com.playmatch.service.service.DisponibilidadService;
 import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -16,25 +25,72 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/canchas")
 public class CanchaController {
 
     private final CanchaService canchaService;
+    private final DisponibilidadService disponibilidadService;
+    private final CatalogoVersion catalogoVersion;
 
-    public CanchaController(CanchaService canchaService) {
+    public CanchaController(CanchaService canchaService, DisponibilidadService disponibilidadService,
+                            CatalogoVersion catalogoVersion) {
         this.canchaService = canchaService;
+        this.disponibilidadService = disponibilidadService;
+        this.catalogoVersion = catalogoVersion;
     }
 
     @GetMapping("/disponibles")
-    @Operation(summary = "Buscar canchas disponibles por ubicación")
-    public ResponseEntity<List<CanchaResponse>> disponibles(@RequestParam double lat,
-                                                            @RequestParam double lng,
-                                                            @RequestParam double radioKm) {
-        return ResponseEntity.ok(canchaService.buscarDisponibles(lat, lng, radioKm));
+    @Operation(summary = "Buscar canchas disponibles por ubicación",
+               description = "Con inicio y fin, solo las canchas abiertas y sin reservas en ese intervalo; con deporte, solo las de ese tipo")
+    public ResponseEntity<List<CanchaResponse>> disponibles(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam double radioKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String deporte,
+            WebRequest webRequest) {
+        if (inicio != null || fin != null) {
+            // Depende tambien de las reservas del intervalo, que la version del catalogo no sigue:
+            // sin ETag ni Cache-Control. Con solo uno de los dos, el servicio responde 400
+            return ResponseEntity.ok(canchaService.buscarDisponibles(lat, lng, radioKm, inicio, fin, deporte));
+        }
+        return desdeCatalogo(webRequest, () -> canchaService.buscarDisponibles(lat, lng, radioKm, null, null, deporte));
+    }
+
+    @GetMapping("/cercanas")
+    @Operation(summary = "Canchas mas cercanas a una ubicacion, ordenadas por distancia",
+               description = "Paginado por cursor: el header X-Next-Cursor trae el valor opaco para pedir la pagina siguiente, "
+                             + "con la misma ubicacion")
+    public ResponseEntity<List<CanchaCercanaResponse>> cercanas(@RequestParam double lat,
+                                                               @RequestParam double lng,
+                                                               @RequestParam(required = false) Double radioKm,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String cursor) {
+        PaginaCanchasCercanas pagina = canchaService.buscarCercanas(lat, lng, radioKm, limit, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            response.header(ReservaController.HEADER_SIGUIENTE_CURSOR, pagina.getSiguienteCursor());
+        }
+        return response.body(pagina.getCanchas());
+    }
+
+    @GetMapping("/{id}/disponibilidad")
+    @Operation(summary = "Franjas libres de una cancha entre dos fechas",
+               description = "Horarios habilitados menos reservas activas, en cuartos de hora. Por defecto, los proximos 14 dias")
+    public ResponseEntity<List<FranjaDisponibleResponse>> disponibilidad(
+            @PathVariable("id") Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(disponibilidadService.consultar(id, desde, hasta));
     }
 
     @PostMapping
@@ -53,8 +109,8 @@ public class CanchaController {
 
     @GetMapping
     @Operation(summary = "Listar todas las canchas")
-    public ResponseEntity<List<CanchaResponse>> listarTodas() {
-        return ResponseEntity.ok(canchaService.listarTodas());
+    public ResponseEntity<List<CanchaResponse>> listarTodas(WebRequest webRequest) {
+        return desdeCatalogo(webRequest, canchaService::listarTodas);
     }
 
     @PutMapping("/{id}")
@@ -72,4 +128,29 @@ public class CanchaController {
         canchaService.eliminarCancha(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Responde 304 si el cliente ya tiene la version actual del catalogo; si no, arma el cuerpo.
+     * En ambos casos con el ETag de la version y el Cache-Control del catalogo. Si armar el cuerpo
+     * falla (parametros invalidos), el error sale sin ETag: por eso no se usa {@code checkNotModified},
+     * que escribe el header en la respuesta antes de saber si va a ser un 200.
+     */
+    private <T> ResponseEntity<T> desdeCatalogo(WebRequest webRequest, Supplier<T> cuerpo) {
+        String etag = catalogoVersion.etag();
+        if (tieneVersion(webRequest, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(catalogoVersion.cacheControl()).build();
+        }
+        T body = cuerpo.get();
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogoVersion.cacheControl()).body(body);
+    }
+
+    private static boolean tieneVersion(WebRequest webRequest, String etag) {
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        // If-None-Match compara en forma debil (RFC 9110)
+        ETag actual = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(e -> e.isWildcard() || e.compare(actual, false));
+    }
 }
@@ -1,17 +1,30 @@
 package com.playmatch.service.controller;
 
+import com.playmatch.service.dto.OcupacionCanchaResponse;
+import com.playmatch.service.dto.ReporteCanchaResponse;
+import com.playmatch.service.dto.ReporteJobRequest;
+import com.playmatch.service.dto.ReporteJobResponse;
 import com.playmatch.service.dto.ReporteReservasResponse;
+import com.playmatch.service.dto.TotalAgrupadoResponse;
 import com.playmatch.service.entity.Usuario;
 import com.playmatch.service.repository.UsuarioRepository;
+import com.playmatch.service.service.ReporteJobService;
 import com.playmatch.service.service.ReporteService;
 import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,10 +32,13 @@ import java.util.List;
 public class ReporteController {
 
     private final ReporteService reporteService;
+    private final ReporteJobService reporteJobService;
     private final UsuarioRepository usuarioRepository;
 
-    public ReporteController(ReporteService reporteService, UsuarioRepository usuarioRepository) {
+    public ReporteController(ReporteService reporteService, ReporteJobService reporteJobService,
+                             UsuarioRepository usuarioRepository) {
         this.reporteService = reporteService;
+        this.reporteJobService = reporteJobService;
         this.usuarioRepository = usuarioRepository;
     }
 
@@ -56,4 +72,43 @@ public class ReporteController {
             throw new IllegalArgumentException("No se pudo determinar el administrador");
         }
     }
+
+    @GetMapping("/reservas/canchas")
+    @Operation(summary = "Reporte de reservas por periodo desglosado por cancha del administrador autenticado")
+    public ResponseEntity<List<ReporteCanchaResponse>> reservasPorCancha(
+            @RequestParam(name = "periodo", defaultValue = "mes") String periodo) {
+        return ResponseEntity.ok(reporteService.reporteReservasPorCanchas(periodo));
+    }
+
+    @GetMapping("/agrupado")
+    @Operation(summary = "Totales de reservas del administrador autenticado por dia, hora de inicio o cancha")
+    public ResponseEntity<List<TotalAgrupadoResponse>> agrupado(
+            @RequestParam(name = "agrupacion", defaultValue = "dia") String agrupacion,
+            @RequestParam(name = "canchaId", required = false) Long canchaId,
+            @RequestParam(name = "fechaDesde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(name = "fechaHasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta) {
+        return ResponseEntity.ok(reporteService.reporteAgrupado(agrupacion, canchaId, fechaDesde, fechaHasta));
+    }
+
+    @GetMapping("/ocupacion")
+    @Operation(summary = "Mapa de calor de ocupacion y recaudacion por dia de la semana y franja horaria de cada cancha")
+    public ResponseEntity<List<OcupacionCanchaResponse>> ocupacion(
+            @RequestParam(name = "canchaId", required = false) Long canchaId,
+            @RequestParam(name = "fechaDesde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(name = "fechaHasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @RequestParam(name = "minutosPorCelda", defaultValue = "60") int minutosPorCelda) {
+        return ResponseEntity.ok(reporteService.ocupacion(canchaId, fechaDesde, fechaHasta, minutosPorCelda));
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Encola un reporte agrupado o de ocupacion para calcularlo en segundo plano")
+    public ResponseEntity<ReporteJobResponse> crearJob(@Validated @RequestBody ReporteJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reporteJobService.crear(request));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Estado, avance y resultado de un reporte en segundo plano")
+    public ResponseEntity<ReporteJobResponse> obtenerJob(@PathVariable Long id) {
+        return ResponseEntity.ok(reporteJobService.obtener(id));
+    }
 }
@@ -1,10 +1,15 @@
 package com.playmatch.service.controller;
 
+import com.playmatch.service.dto.ConfirmacionLoteRequest;
+import com.playmatch.service.dto.PaginaReservas;
 import com.playmatch.service.dto.ReservaRequest;
 import com.playmatch.service.dto.ReservaResponse;
+import com.playmatch.service.service.ReservaExportService;
 import com.playmatch.service.service.ReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -16,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -24,10 +30,15 @@ import java.util.List;
 @RequestMapping("/api/reservas")
 public class ReservaController {
 
+    static final String HEADER_SIGUIENTE_CURSOR = "X-Next-Cursor";
+    static final String HEADER_TOTAL = "X-Total-Count";
+
     private final ReservationService reservationService;
+    private final ReservaExportService reservaExportService;
 
-    public ReservaController(ReservationService reservationService) {
+    public ReservaController(ReservationService reservationService, ReservaExportService reservaExportService) {
         this.reservationService = reservationService;
+        this.reservaExportService = reservaExportService;
     }
 
     @PostMapping
@@ -46,20 +57,23 @@ public class ReservaController {
 
     @GetMapping
     @PreAuthorize("hasRole('JUGADOR')")
-    @Operation(summary = "Listar las reservas del usuario autenticado con filtros y ordenamiento")
+    @Operation(summary = "Listar las reservas del usuario autenticado con filtros, ordenamiento y paginacion por cursor")
     public ResponseEntity<List<ReservaResponse>> listarMisReservas(
             @RequestParam(required = false) String estado,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
             @RequestParam(required = false) Long canchaId,
             @RequestParam(defaultValue = "fecha") String ordenarPor,
-            @RequestParam(defaultValue = "desc") String direccion) {
-        return ResponseEntity.ok(reservationService.listarMisReservas(
-                estado, fechaDesde, fechaHasta, canchaId, ordenarPor, direccion));
+            @RequestParam(defaultValue = "desc") String direccion,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        return paginaResponse(reservationService.listarMisReservas(
+                estado, fechaDesde, fechaHasta, canchaId, ordenarPor, direccion, cursor, limite, incluirTotal));
     }
 
     @GetMapping("/canchas/{canchaId}")
-    @Operation(summary = "Listar todas las reservas de una cancha específica con filtros y ordenamiento")
+    @Operation(summary = "Listar todas las reservas de una cancha específica con filtros, ordenamiento y paginacion por cursor")
     public ResponseEntity<List<ReservaResponse>> listarReservasPorCancha(
             @PathVariable("canchaId") Long canchaId,
             @RequestParam(required = false) String estado,
@@ -67,9 +81,12 @@ public class ReservaController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
             @RequestParam(required = false) String cliente,
             @RequestParam(defaultValue = "fecha") String ordenarPor,
-            @RequestParam(defaultValue = "desc") String direccion) {
-        return ResponseEntity.ok(reservationService.listarReservasPorCancha(
-                canchaId, estado, fechaDesde, fechaHasta, cliente, ordenarPor, direccion));
+            @RequestParam(defaultValue = "desc") String direccion,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        return paginaResponse(reservationService.listarReservasPorCancha(
+                canchaId, estado, fechaDesde, fechaHasta, cliente, ordenarPor, direccion, cursor, limite, incluirTotal));
     }
 
     @GetMapping("/administrador")
@@ -83,9 +100,48 @@ public class ReservaController {
             @RequestParam(required = false) Long canchaId,
             @RequestParam(required = false) String cliente,
             @RequestParam(defaultValue = "fecha") String ordenarPor,
-            @RequestParam(defaultValue = "desc") String direccion) {
-        return ResponseEntity.ok(reservationService.listarReservasDelAdministrador(
-                estado, fechaDesde, fechaHasta, canchaId, cliente, ordenarPor, direccion));
+            @RequestParam(defaultValue = "desc") String direccion,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        return paginaResponse(reservationService.listarReservasDelAdministrador(
+                estado, fechaDesde, fechaHasta, canchaId, cliente, ordenarPor, direccion, cursor, limite, incluirTotal));
+    }
+
+    @GetMapping("/administrador/exportar")
+    @PreAuthorize("hasRole('ADMINISTRADOR_CANCHA')")
+    @Operation(summary = "Exportar las reservas de las canchas del administrador autenticado",
+               description = "Escribe las reservas ordenadas por fecha en CSV o NDJSON a medida que se leen de la base, con los mismos filtros del listado")
+    public ResponseEntity<StreamingResponseBody> exportarReservasDelAdministrador(
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @RequestParam(required = false) Long canchaId,
+            @RequestParam(required = false) String cliente) {
+        ReservaExportService.Formato formatoExportacion = ReservaExportService.Formato.desde(formato);
+        StreamingResponseBody cuerpo = reservaExportService.exportarReservasDelAdministrador(
+                formatoExportacion, estado, fechaDesde, fechaHasta, canchaId, cliente);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacion.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservas." + formatoExportacion.getExtension() + "\"")
+                .body(cuerpo);
+    }
+
+    /**
+     * El cuerpo sigue siendo la lista de reservas; el cursor de la pagina siguiente y el total
+     * (si se pidio) viajan en los headers X-Next-Cursor y X-Total-Count.
+     */
+    private ResponseEntity<List<ReservaResponse>> paginaResponse(PaginaReservas pagina) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            response.header(HEADER_SIGUIENTE_CURSOR, String.valueOf(pagina.getSiguienteCursor()));
+        }
+        if (pagina.getTotal() != null) {
+            response.header(HEADER_TOTAL, String.valueOf(pagina.getTotal()));
+        }
+        return response.body(pagina.getReservas());
     }
 
     @DeleteMapping("/{id}")
@@ -116,4 +172,13 @@ public class ReservaController {
         int cantidadConfirmada = reservationService.confirmarTodasReservasPendientes();
         return ResponseEntity.ok("Se confirmaron " + cantidadConfirmada + " reservas pendientes");
     }
+
+    @PostMapping("/confirmar-lote")
+    @PreAuthorize("hasRole('ADMINISTRADOR_CANCHA')")
+    @Operation(summary = "Confirmar un lote de reservas pendientes del administrador de cancha",
+               description = "Confirma las reservas PENDIENTE indicadas por id o cuyo inicio cae en el rango de fechas, en una sola operacion")
+    public ResponseEntity<String> confirmarLote(@Validated @RequestBody ConfirmacionLoteRequest request) {
+        int cantidadConfirmada = reservationService.confirmarReservasEnLote(request);
+        return ResponseEntity.ok("Se confirmaron " + cantidadConfirmada + " reservas pendientes");
+    }
 }
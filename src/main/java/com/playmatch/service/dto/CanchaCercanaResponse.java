@@ -0,0 +1,19 @@
+package com.playmatch.service.dto;
+
+public class CanchaCercanaResponse {
+    private final CanchaResponse cancha;
+    private final double distanciaKm;  // Desde el punto de la busqueda
+
+    public CanchaCercanaResponse(CanchaResponse cancha, double distanciaKm) {
+        this.cancha = cancha;
+        this.distanciaKm = distanciaKm;
+    }
+
+    public CanchaResponse getCancha() {
+        return cancha;
+    }
+
+    public double getDistanciaKm() {
+        return distanciaKm;
+    }
+}
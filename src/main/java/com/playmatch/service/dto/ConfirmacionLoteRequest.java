@@ -0,0 +1,43 @@
+package com.playmatch.service.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Seleccion de reservas pendientes a confirmar: una lista de ids o un rango de fechas (ambos extremos inclusive).
+ */
+public class ConfirmacionLoteRequest {
+
+    @Size(max = 1000, message = "No se pueden confirmar mas de 1000 reservas por lote")
+    private List<Long> ids;
+
+    private LocalDate fechaDesde;
+
+    private LocalDate fechaHasta;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public LocalDate getFechaDesde() {
+        return fechaDesde;
+    }
+
+    public void setFechaDesde(LocalDate fechaDesde) {
+        this.fechaDesde = fechaDesde;
+    }
+
+    public LocalDate getFechaHasta() {
+        return fechaHasta;
+    }
+
+    public void setFechaHasta(LocalDate fechaHasta) {
+        this.fechaHasta = fechaHasta;
+    }
+}
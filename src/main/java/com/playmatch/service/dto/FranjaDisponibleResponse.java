@@ -0,0 +1,28 @@
+package com.playmatch.service.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class FranjaDisponibleResponse {
+    private LocalDate fecha;
+    private LocalTime inicio;
+    private LocalTime fin;  // 00:00 indica que la franja llega hasta la medianoche
+
+    public FranjaDisponibleResponse(LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        this.fecha = fecha;
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public LocalTime getInicio() {
+        return inicio;
+    }
+
+    public LocalTime getFin() {
+        return fin;
+    }
+}
@@ -0,0 +1,53 @@
+package com.playmatch.service.dto;
+
+import java.time.LocalDate;
+
+public class OcupacionCanchaResponse {
+    private Long canchaId;
+    private String canchaNombre;
+    private LocalDate fechaDesde;
+    private LocalDate fechaHasta;
+    private int minutosPorCelda;
+    // Filas: dias de la semana de lunes a domingo; columnas: celdas del dia desde las 00:00
+    private double[][] ocupacion;    // Porcentaje del horario habilitado que estuvo reservado
+    private double[][] recaudacion;  // Reservas confirmadas y finalizadas, por celda de inicio
+
+    public OcupacionCanchaResponse(Long canchaId, String canchaNombre, LocalDate fechaDesde, LocalDate fechaHasta,
+                                   int minutosPorCelda, double[][] ocupacion, double[][] recaudacion) {
+        this.canchaId = canchaId;
+        this.canchaNombre = canchaNombre;
+        this.fechaDesde = fechaDesde;
+        this.fechaHasta = fechaHasta;
+        this.minutosPorCelda = minutosPorCelda;
+        this.ocupacion = ocupacion;
+        this.recaudacion = recaudacion;
+    }
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public String getCanchaNombre() {
+        return canchaNombre;
+    }
+
+    public LocalDate getFechaDesde() {
+        return fechaDesde;
+    }
+
+    public LocalDate getFechaHasta() {
+        return fechaHasta;
+    }
+
+    public int getMinutosPorCelda() {
+        return minutosPorCelda;
+    }
+
+    public double[][] getOcupacion() {
+        return ocupacion;
+    }
+
+    public double[][] getRecaudacion() {
+        return recaudacion;
+    }
+}
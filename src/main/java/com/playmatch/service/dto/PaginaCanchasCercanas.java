@@ -0,0 +1,21 @@
+package com.playmatch.service.dto;
+
+import java.util.List;
+
+public class PaginaCanchasCercanas {
+    private final List<CanchaCercanaResponse> canchas;
+    private final String siguienteCursor;  // opaco; null si no hay mas paginas
+
+    public PaginaCanchasCercanas(List<CanchaCercanaResponse> canchas, String siguienteCursor) {
+        this.canchas = canchas;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<CanchaCercanaResponse> getCanchas() {
+        return canchas;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.playmatch.service.dto;
+
+import java.util.List;
+
+public class PaginaReservas {
+    private final List<ReservaResponse> reservas;
+    private final Long siguienteCursor;  // null si no hay mas paginas
+    private final Long total;            // null si no se pidio el total
+
+    public PaginaReservas(List<ReservaResponse> reservas, Long siguienteCursor, Long total) {
+        this.reservas = reservas;
+        this.siguienteCursor = siguienteCursor;
+        this.total = total;
+    }
+
+    public List<ReservaResponse> getReservas() {
+        return reservas;
+    }
+
+    public Long getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,40 @@
+package com.playmatch.service.dto;
+
+import java.util.List;
+
+public class ReporteCanchaResponse {
+    private Long canchaId;
+    private String canchaNombre;
+    private long totalReservas;
+    private double recaudacion;
+    private List<ReporteReservasResponse> dias;  // Totales de la cancha por fecha, mismo formato que el reporte del administrador
+
+    public ReporteCanchaResponse(Long canchaId, String canchaNombre, long totalReservas, double recaudacion,
+                                 List<ReporteReservasResponse> dias) {
+        this.canchaId = canchaId;
+        this.canchaNombre = canchaNombre;
+        this.totalReservas = totalReservas;
+        this.recaudacion = recaudacion;
+        this.dias = dias;
+    }
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public String getCanchaNombre() {
+        return canchaNombre;
+    }
+
+    public long getTotalReservas() {
+        return totalReservas;
+    }
+
+    public double getRecaudacion() {
+        return recaudacion;
+    }
+
+    public List<ReporteReservasResponse> getDias() {
+        return dias;
+    }
+}
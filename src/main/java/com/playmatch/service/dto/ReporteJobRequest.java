@@ -0,0 +1,73 @@
+package com.playmatch.service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.LocalDate;
+
+/**
+ * Pedido de un reporte en segundo plano. El tipo es "agrupado" (con agrupacion dia, hora o cancha)
+ * u "ocupacion" (con minutosPorCelda); sin canchaId se incluyen todas las canchas del administrador.
+ */
+public class ReporteJobRequest {
+
+    @NotBlank
+    private String tipo;
+
+    private String agrupacion = "dia";
+
+    private Long canchaId;
+
+    private LocalDate fechaDesde;
+
+    private LocalDate fechaHasta;
+
+    private int minutosPorCelda = 60;
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getAgrupacion() {
+        return agrupacion;
+    }
+
+    public void setAgrupacion(String agrupacion) {
+        this.agrupacion = agrupacion;
+    }
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public void setCanchaId(Long canchaId) {
+        this.canchaId = canchaId;
+    }
+
+    public LocalDate getFechaDesde() {
+        return fechaDesde;
+    }
+
+    public void setFechaDesde(LocalDate fechaDesde) {
+        this.fechaDesde = fechaDesde;
+    }
+
+    public LocalDate getFechaHasta() {
+        return fechaHasta;
+    }
+
+    public void setFechaHasta(LocalDate fechaHasta) {
+        this.fechaHasta = fechaHasta;
+    }
+
+    public int getMinutosPorCelda() {
+        return minutosPorCelda;
+    }
+
+    public void setMinutosPorCelda(int minutosPorCelda) {
+        this.minutosPorCelda = minutosPorCelda;
+    }
+}
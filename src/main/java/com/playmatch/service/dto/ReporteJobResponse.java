@@ -0,0 +1,87 @@
+package com.playmatch.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class ReporteJobResponse {
+    private Long id;
+    private String tipo;
+    private String agrupacion;
+    private Long canchaId;
+    private LocalDate fechaDesde;
+    private LocalDate fechaHasta;
+    private String estado;      // PENDIENTE, EN_CURSO, COMPLETADO o FALLIDO
+    private int progreso;       // Porcentaje de avance
+    private String error;
+    private LocalDateTime creadoEn;
+    private LocalDateTime finalizadoEn;
+    @JsonRawValue
+    private String resultado;   // Mismo JSON que el endpoint sincronico; null hasta completar
+
+    public ReporteJobResponse(Long id, String tipo, String agrupacion, Long canchaId, LocalDate fechaDesde,
+                              LocalDate fechaHasta, String estado, int progreso, String error,
+                              LocalDateTime creadoEn, LocalDateTime finalizadoEn, String resultado) {
+        this.id = id;
+        this.tipo = tipo;
+        this.agrupacion = agrupacion;
+        this.canchaId = canchaId;
+        this.fechaDesde = fechaDesde;
+        this.fechaHasta = fechaHasta;
+        this.estado = estado;
+        this.progreso = progreso;
+        this.error = error;
+        this.creadoEn = creadoEn;
+        this.finalizadoEn = finalizadoEn;
+        this.resultado = resultado;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getAgrupacion() {
+        return agrupacion;
+    }
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public LocalDate getFechaDesde() {
+        return fechaDesde;
+    }
+
+    public LocalDate getFechaHasta() {
+        return fechaHasta;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public int getProgreso() {
+        return progreso;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreadoEn() {
+        return creadoEn;
+    }
+
+    public LocalDateTime getFinalizadoEn() {
+        return finalizadoEn;
+    }
+
+    public String getResultado() {
+        return resultado;
+    }
+}
@@ -1,6 +1,10 @@
 package com.playmatch.service.dto;
 
+import com.playmatch.service.entity.Deporte;
+import com.playmatch.service.entity.Reserva;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 public class ReservaResponse {
@@ -15,6 +19,26 @@ public class ReservaResponse {
     private LocalTime horaFin;
     private Double monto;
 
+    public ReservaResponse() {
+    }
+
+    /**
+     * Usado por las consultas de proyeccion, que arman la respuesta directamente desde SQL.
+     */
+    public ReservaResponse(Long id, Long canchaId, String canchaNombre, Deporte canchaTipo, String cliente,
+                           Reserva.EstadoReserva estado, LocalDateTime inicio, LocalDateTime fin, Double monto) {
+        this.id = id;
+        this.canchaId = canchaId;
+        this.canchaNombre = canchaNombre;
+        this.canchaDeporte = canchaTipo != null ? canchaTipo.name() : null;
+        this.cliente = cliente;
+        this.estado = estado != null ? estado.name().toLowerCase() : null;
+        this.fecha = inicio.toLocalDate();
+        this.horaInicio = inicio.toLocalTime();
+        this.horaFin = fin.toLocalTime();
+        this.monto = monto;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,31 @@
+package com.playmatch.service.dto;
+
+public class TotalAgrupadoResponse {
+    private String grupo;  // Fecha (yyyy-MM-dd), hora de inicio (HH:00) o nombre de la cancha
+    private long totalReservas;
+    private long totalConfirmadas;
+    private double recaudacion;
+
+    public TotalAgrupadoResponse(String grupo, long totalReservas, long totalConfirmadas, double recaudacion) {
+        this.grupo = grupo;
+        this.totalReservas = totalReservas;
+        this.totalConfirmadas = totalConfirmadas;
+        this.recaudacion = recaudacion;
+    }
+
+    public String getGrupo() {
+        return grupo;
+    }
+
+    public long getTotalReservas() {
+        return totalReservas;
+    }
+
+    public long getTotalConfirmadas() {
+        return totalConfirmadas;
+    }
+
+    public double getRecaudacion() {
+        return recaudacion;
+    }
+}
@@ -1,6 +1,7 @@
 package com.playmatch.service.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalTime;
@@ -8,7 +9,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "canchas")
+@Table(name = "canchas", indexes = @Index(name = "idx_canchas_latitud_longitud", columnList = "latitud, longitud"))
 public class Cancha {
 
     @Id
@@ -45,6 +46,8 @@ public class Cancha {
     @OneToMany(mappedBy = "cancha", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Reserva> reservas = new HashSet<>();
 
+    // Los listados del catalogo compilan los horarios de muchas canchas: se cargan de a lotes, no de a una
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "cancha", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CanchaHorario> horarios = new HashSet<>();
 
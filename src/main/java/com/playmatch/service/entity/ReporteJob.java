@@ -0,0 +1,217 @@
+package com.playmatch.service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reporte pedido para correr en segundo plano. Guarda los parametros, el avance y, al terminar,
+ * el resultado serializado en JSON para consultarlo luego por id.
+ */
+@Entity
+@Table(name = "reporte_jobs")
+public class ReporteJob {
+
+    public enum TipoReporte {
+        AGRUPADO,
+        OCUPACION
+    }
+
+    public enum EstadoJob {
+        PENDIENTE,
+        EN_CURSO,
+        COMPLETADO,
+        FALLIDO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "administrador_cancha_id", nullable = false)
+    private Long administradorCanchaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoReporte tipo;
+
+    // Solo para los reportes agrupados: DIA, HORA o CANCHA
+    @Column(length = 20)
+    private String agrupacion;
+
+    // Null para incluir todas las canchas del administrador
+    @Column(name = "cancha_id")
+    private Long canchaId;
+
+    @Column(name = "fecha_desde", nullable = false)
+    private LocalDate fechaDesde;
+
+    @Column(name = "fecha_hasta", nullable = false)
+    private LocalDate fechaHasta;
+
+    @Column(name = "minutos_por_celda")
+    private Integer minutosPorCelda;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoJob estado;
+
+    // Porcentaje de avance, de 0 a 100
+    @Column(nullable = false)
+    private int progreso;
+
+    @Column(columnDefinition = "text")
+    private String resultado;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+
+    @Column(name = "finalizado_en")
+    private LocalDateTime finalizadoEn;
+
+    // Instancia que lo tiene encolado o calculando; mientras esta viva renueva latidoEn
+    @Column(length = 36)
+    private String instancia;
+
+    @Column(name = "latido_en")
+    private LocalDateTime latidoEn;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAdministradorCanchaId() {
+        return administradorCanchaId;
+    }
+
+    public void setAdministradorCanchaId(Long administradorCanchaId) {
+        this.administradorCanchaId = administradorCanchaId;
+    }
+
+    public TipoReporte getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoReporte tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getAgrupacion() {
+        return agrupacion;
+    }
+
+    public void setAgrupacion(String agrupacion) {
+        this.agrupacion = agrupacion;
+    }
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public void setCanchaId(Long canchaId) {
+        this.canchaId = canchaId;
+    }
+
+    public LocalDate getFechaDesde() {
+        return fechaDesde;
+    }
+
+    public void setFechaDesde(LocalDate fechaDesde) {
+        this.fechaDesde = fechaDesde;
+    }
+
+    public LocalDate getFechaHasta() {
+        return fechaHasta;
+    }
+
+    public void setFechaHasta(LocalDate fechaHasta) {
+        this.fechaHasta = fechaHasta;
+    }
+
+    public Integer getMinutosPorCelda() {
+        return minutosPorCelda;
+    }
+
+    public void setMinutosPorCelda(Integer minutosPorCelda) {
+        this.minutosPorCelda = minutosPorCelda;
+    }
+
+    public EstadoJob getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoJob estado) {
+        this.estado = estado;
+    }
+
+    public int getProgreso() {
+        return progreso;
+    }
+
+    public void setProgreso(int progreso) {
+        this.progreso = progreso;
+    }
+
+    public String getResultado() {
+        return resultado;
+    }
+
+    public void setResultado(String resultado) {
+        this.resultado = resultado;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getCreadoEn() {
+        return creadoEn;
+    }
+
+    public void setCreadoEn(LocalDateTime creadoEn) {
+        this.creadoEn = creadoEn;
+    }
+
+    public LocalDateTime getFinalizadoEn() {
+        return finalizadoEn;
+    }
+
+    public void setFinalizadoEn(LocalDateTime finalizadoEn) {
+        this.finalizadoEn = finalizadoEn;
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public void setInstancia(String instancia) {
+        this.instancia = instancia;
+    }
+
+    public LocalDateTime getLatidoEn() {
+        return latidoEn;
+    }
+
+    public void setLatidoEn(LocalDateTime latidoEn) {
+        this.latidoEn = latidoEn;
+    }
+}
@@ -7,14 +7,21 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 import java.time.LocalDateTime;
 
+/**
+ * El indice {@code idx_reservas_cancha_fin} sirve a las consultas por cancha que filtran por fin: las franjas
+ * activas del indice de intervalos y los montos confirmados aun no cobrados de los reportes sobre el rollup.
+ * Con {@code ddl-auto: update} Hibernate lo crea al arrancar sobre una base existente; en una base gestionada
+ * a mano hay que crearlo con {@code CREATE INDEX idx_reservas_cancha_fin ON reservas (cancha_id, fin)}.
+ */
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = @Index(name = "idx_reservas_cancha_fin", columnList = "cancha_id, fin"))
 public class Reserva {
 
     public enum EstadoReserva {
@@ -46,6 +53,10 @@ public class Reserva {
     @Column
     private Double monto;
 
+    // Momento en que una reserva pendiente sin confirmar se cancela automaticamente
+    @Column(name = "vence_en")
+    private LocalDateTime venceEn;
+
     public Long getId() {
         return id;
     }
@@ -97,4 +108,12 @@ public class Reserva {
     public void setMonto(Double monto) {
         this.monto = monto;
     }
+
+    public LocalDateTime getVenceEn() {
+        return venceEn;
+    }
+
+    public void setVenceEn(LocalDateTime venceEn) {
+        this.venceEn = venceEn;
+    }
 }
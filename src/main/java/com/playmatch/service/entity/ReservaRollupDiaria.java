@@ -0,0 +1,78 @@
+package com.playmatch.service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Totales diarios de reservas por cancha, mantenidos en la misma transaccion que cada alta,
+ * cambio de estado o baja de una reserva. La fecha es la del inicio de la reserva.
+ */
+@Entity
+@Table(name = "reserva_rollup_diaria")
+@IdClass(ReservaRollupDiaria.Clave.class)
+public class ReservaRollupDiaria {
+
+    @Id
+    @Column(name = "cancha_id")
+    private Long canchaId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    // Reservas del dia en cualquier estado
+    @Column(nullable = false)
+    private long cantidad;
+
+    // Suma de montos de las reservas confirmadas del dia
+    @Column(name = "monto_confirmado", nullable = false)
+    private double montoConfirmado;
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public double getMontoConfirmado() {
+        return montoConfirmado;
+    }
+
+    public static class Clave implements Serializable {
+        private Long canchaId;
+        private LocalDate fecha;
+
+        public Clave() {
+        }
+
+        public Clave(Long canchaId, LocalDate fecha) {
+            this.canchaId = canchaId;
+            this.fecha = fecha;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave clave)) return false;
+            return Objects.equals(canchaId, clave.canchaId) && Objects.equals(fecha, clave.fecha);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(canchaId, fecha);
+        }
+    }
+}
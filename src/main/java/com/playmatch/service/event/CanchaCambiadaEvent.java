@@ -0,0 +1,29 @@
+package com.playmatch.service.event;
+
+/**
+ * Se publica cuando una cancha se crea, se modifican sus datos u horarios, o se elimina.
+ */
+public class CanchaCambiadaEvent {
+
+    private final Long canchaId;
+    private final Long administradorCanchaId;
+    private final boolean eliminada;
+
+    public CanchaCambiadaEvent(Long canchaId, Long administradorCanchaId, boolean eliminada) {
+        this.canchaId = canchaId;
+        this.administradorCanchaId = administradorCanchaId;
+        this.eliminada = eliminada;
+    }
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public Long getAdministradorCanchaId() {
+        return administradorCanchaId;
+    }
+
+    public boolean isEliminada() {
+        return eliminada;
+    }
+}
@@ -0,0 +1,98 @@
+package com.playmatch.service.event;
+
+import com.playmatch.service.entity.Reserva;
+
+import java.time.LocalDateTime;
+
+/**
+ * Se publica cada vez que una reserva se crea, cambia de estado o se elimina.
+ * Un estado anterior nulo indica una reserva nueva; un estado nuevo nulo, una reserva eliminada.
+ */
+public class ReservaCambiadaEvent {
+
+    private final Long reservaId;
+    private final Long canchaId;
+    private final Long administradorCanchaId;
+    private final LocalDateTime inicio;
+    private final LocalDateTime fin;
+    private final Double monto;
+    private final Reserva.EstadoReserva estadoAnterior;
+    private final Reserva.EstadoReserva estadoNuevo;
+
+    public ReservaCambiadaEvent(Long reservaId, Long canchaId, Long administradorCanchaId,
+                                LocalDateTime inicio, LocalDateTime fin, Double monto,
+                                Reserva.EstadoReserva estadoAnterior, Reserva.EstadoReserva estadoNuevo) {
+        this.reservaId = reservaId;
+        this.canchaId = canchaId;
+        this.administradorCanchaId = administradorCanchaId;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.monto = monto;
+        this.estadoAnterior = estadoAnterior;
+        this.estadoNuevo = estadoNuevo;
+    }
+
+    public static ReservaCambiadaEvent creada(Reserva reserva) {
+        return desde(reserva, null, reserva.getEstado());
+    }
+
+    public static ReservaCambiadaEvent cambioDeEstado(Reserva reserva, Reserva.EstadoReserva estadoAnterior) {
+        return desde(reserva, estadoAnterior, reserva.getEstado());
+    }
+
+    public static ReservaCambiadaEvent eliminada(Reserva reserva) {
+        return desde(reserva, reserva.getEstado(), null);
+    }
+
+    private static ReservaCambiadaEvent desde(Reserva reserva, Reserva.EstadoReserva anterior, Reserva.EstadoReserva nuevo) {
+        return new ReservaCambiadaEvent(
+                reserva.getId(),
+                reserva.getCancha().getId(),
+                reserva.getCancha().getAdministradorCancha().getId(),
+                reserva.getInicio(),
+                reserva.getFin(),
+                reserva.getMonto(),
+                anterior,
+                nuevo
+        );
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public Long getCanchaId() {
+        return canchaId;
+    }
+
+    public Long getAdministradorCanchaId() {
+        return administradorCanchaId;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public LocalDateTime getFin() {
+        return fin;
+    }
+
+    public Double getMonto() {
+        return monto;
+    }
+
+    public Reserva.EstadoReserva getEstadoAnterior() {
+        return estadoAnterior;
+    }
+
+    public Reserva.EstadoReserva getEstadoNuevo() {
+        return estadoNuevo;
+    }
+
+    /**
+     * Indica si la reserva ocupa su franja luego del cambio (no eliminada ni cancelada).
+     */
+    public boolean isActiva() {
+        return estadoNuevo != null && estadoNuevo != Reserva.EstadoReserva.CANCELADA;
+    }
+}
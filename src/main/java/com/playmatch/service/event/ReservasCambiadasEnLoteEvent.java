@@ -0,0 +1,21 @@
+package com.playmatch.service.event;
+
+import java.util.List;
+
+/**
+ * Se publica cuando una operacion masiva (confirmacion en lote, vencimiento de pendientes)
+ * cambia el estado de varias reservas con una sola sentencia. Trae el detalle de cada cambio
+ * para que los listeners puedan procesarlos juntos en lugar de uno por uno.
+ */
+public class ReservasCambiadasEnLoteEvent {
+
+    private final List<ReservaCambiadaEvent> cambios;
+
+    public ReservasCambiadasEnLoteEvent(List<ReservaCambiadaEvent> cambios) {
+        this.cambios = List.copyOf(cambios);
+    }
+
+    public List<ReservaCambiadaEvent> getCambios() {
+        return cambios;
+    }
+}
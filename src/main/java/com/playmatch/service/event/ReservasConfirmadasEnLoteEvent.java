@@ -0,0 +1,45 @@
+package com.playmatch.service.event;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Se publica cuando una confirmacion masiva pasa de PENDIENTE a CONFIRMADA, con una sola sentencia,
+ * todas las reservas del administrador que cumplen el filtro. En lugar del detalle de cada reserva trae
+ * los totales por cancha y dia de inicio que devolvio esa misma sentencia, de modo que publicarlo y
+ * procesarlo cuesta segun los cancha-dia tocados y no segun la cantidad de reservas.
+ */
+public class ReservasConfirmadasEnLoteEvent {
+
+    private final Long administradorCanchaId;
+    private final List<TotalDia> totales;
+
+    public ReservasConfirmadasEnLoteEvent(Long administradorCanchaId, List<TotalDia> totales) {
+        this.administradorCanchaId = administradorCanchaId;
+        this.totales = List.copyOf(totales);
+    }
+
+    public Long getAdministradorCanchaId() {
+        return administradorCanchaId;
+    }
+
+    public List<TotalDia> getTotales() {
+        return totales;
+    }
+
+    public Set<Long> getCanchaIds() {
+        return totales.stream().map(TotalDia::canchaId).collect(Collectors.toSet());
+    }
+
+    public long getCantidad() {
+        return totales.stream().mapToLong(TotalDia::cantidad).sum();
+    }
+
+    /**
+     * Reservas confirmadas de una cancha cuyo inicio cae en {@code fecha}, y la suma de sus montos.
+     */
+    public record TotalDia(Long canchaId, LocalDate fecha, long cantidad, double monto) {
+    }
+}
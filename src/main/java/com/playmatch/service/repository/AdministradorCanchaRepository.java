@@ -2,10 +2,16 @@ package com.playmatch.service.repository;
 
 import com.playmatch.service.entity.AdministradorCancha;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface AdministradorCanchaRepository extends JpaRepository<AdministradorCancha, Long> {
     Optional<AdministradorCancha> findByUsuarioId(Long usuarioId);
     Optional<AdministradorCancha> findByNombreIgnoreCase(String nombre);
+
+    // Solo el id: cargar el administrador arrastra al usuario y su otro lado del uno a uno en otra consulta
+    @Query("SELECT a.id FROM AdministradorCancha a WHERE a.usuario.id = :usuarioId")
+    Optional<Long> findIdByUsuarioId(@Param("usuarioId") Long usuarioId);
 }
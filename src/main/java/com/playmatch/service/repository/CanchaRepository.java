@@ -2,6 +2,30 @@ package com.playmatch.service.repository;
 
 import com.playmatch.service.entity.Cancha;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface CanchaRepository extends JpaRepository<Cancha, Long> {
+
+    interface CoordenadaCancha {
+        Long getId();
+
+        Double getLatitud();
+
+        Double getLongitud();
+    }
+
+    List<Cancha> findByAdministradorCanchaId(Long administradorCanchaId);
+
+    /**
+     * Canchas dentro del rectangulo dado, usando el indice sobre (latitud, longitud).
+     */
+    @Query("SELECT c.id AS id, c.latitud AS latitud, c.longitud AS longitud FROM Cancha c " +
+           "WHERE c.latitud BETWEEN :latitudDesde AND :latitudHasta AND c.longitud BETWEEN :longitudDesde AND :longitudHasta")
+    List<CoordenadaCancha> findCoordenadasEnRectangulo(@Param("latitudDesde") double latitudDesde,
+                                                       @Param("latitudHasta") double latitudHasta,
+                                                       @Param("longitudDesde") double longitudDesde,
+                                                       @Param("longitudHasta") double longitudHasta);
 }
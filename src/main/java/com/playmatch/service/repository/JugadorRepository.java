@@ -2,9 +2,15 @@ package com.playmatch.service.repository;
 
 import com.playmatch.service.entity.Jugador;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface JugadorRepository extends JpaRepository<Jugador, Long> {
     Optional<Jugador> findByUsuarioId(Long usuarioId);
+
+    // Solo el id: cargar el jugador arrastra al usuario y su otro lado del uno a uno en otra consulta
+    @Query("SELECT j.id FROM Jugador j WHERE j.usuario.id = :usuarioId")
+    Optional<Long> findIdByUsuarioId(@Param("usuarioId") Long usuarioId);
 }
@@ -0,0 +1,54 @@
+package com.playmatch.service.repository;
+
+import com.playmatch.service.entity.Reserva;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaExpression;
+
+import java.time.LocalTime;
+
+/**
+ * Criterios de ordenamiento aceptados por los listados de reservas (parametro {@code ordenarPor}).
+ */
+public enum OrdenReservas {
+    FECHA,
+    HORA_INICIO,
+    HORA_FIN,
+    ESTADO,
+    CLIENTE,
+    MONTO,
+    CANCHA;
+
+    public static OrdenReservas desde(String ordenarPor) {
+        if (ordenarPor == null) {
+            return FECHA;
+        }
+        return switch (ordenarPor.toLowerCase()) {
+            case "hora", "horainicio" -> HORA_INICIO;
+            case "horafin" -> HORA_FIN;
+            case "estado" -> ESTADO;
+            case "cliente" -> CLIENTE;
+            case "monto" -> MONTO;
+            case "cancha", "canchaid" -> CANCHA;
+            default -> FECHA; // Por defecto ordenar por fecha
+        };
+    }
+
+    /**
+     * Expresion SQL por la que se ordena; el id de la reserva se usa siempre como desempate.
+     */
+    @SuppressWarnings("unchecked")
+    Expression<Comparable<Object>> expresion(Root<Reserva> root, CriteriaBuilder cb) {
+        Expression<?> expresion = switch (this) {
+            case FECHA -> root.get("inicio");
+            case HORA_INICIO -> ((JpaExpression<?>) root.get("inicio")).cast(LocalTime.class);
+            case HORA_FIN -> ((JpaExpression<?>) root.get("fin")).cast(LocalTime.class);
+            case ESTADO -> root.get("estado");
+            case CLIENTE -> root.get("jugador").get("nombre");
+            case MONTO -> cb.coalesce(root.<Double>get("monto"), 0.0);
+            case CANCHA -> root.get("cancha").get("nombre");
+        };
+        return (Expression<Comparable<Object>>) expresion;
+    }
+}
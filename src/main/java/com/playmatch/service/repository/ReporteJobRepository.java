@@ -0,0 +1,65 @@
+package com.playmatch.service.repository;
+
+import com.playmatch.service.entity.ReporteJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReporteJobRepository extends JpaRepository<ReporteJob, Long> {
+
+    /**
+     * Trabajos sin terminar cuya instancia dejo de renovar el latido antes de {@code limite}.
+     */
+    @Query("SELECT j.id FROM ReporteJob j WHERE j.estado IN ('PENDIENTE', 'EN_CURSO') " +
+           "AND (j.latidoEn IS NULL OR j.latidoEn < :limite) ORDER BY j.id")
+    List<Long> findIdsAbandonados(@Param("limite") LocalDateTime limite);
+
+    /**
+     * Pasa un trabajo abandonado a la instancia indicada y lo vuelve a dejar pendiente desde cero.
+     * La condicion se vuelve a evaluar en el UPDATE: si dos instancias lo reclaman a la vez, solo una
+     * modifica la fila y la otra recibe 0.
+     */
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.instancia = :instancia, j.latidoEn = :ahora, j.estado = 'PENDIENTE', j.progreso = 0 " +
+           "WHERE j.id = :id AND j.estado IN ('PENDIENTE', 'EN_CURSO') AND (j.latidoEn IS NULL OR j.latidoEn < :limite)")
+    int reclamar(@Param("id") Long id,
+                 @Param("instancia") String instancia,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("limite") LocalDateTime limite);
+
+    /**
+     * Renueva con una sola sentencia el latido de todos los trabajos sin terminar de la instancia.
+     */
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.latidoEn = :ahora WHERE j.instancia = :instancia AND j.estado IN ('PENDIENTE', 'EN_CURSO')")
+    int latir(@Param("instancia") String instancia, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Marca en curso un trabajo pendiente, solo si sigue siendo de la instancia indicada.
+     */
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.estado = 'EN_CURSO' WHERE j.id = :id AND j.instancia = :instancia AND j.estado = 'PENDIENTE'")
+    int iniciar(@Param("id") Long id, @Param("instancia") String instancia);
+
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.progreso = :progreso WHERE j.id = :id AND j.instancia = :instancia")
+    int actualizarProgreso(@Param("id") Long id, @Param("instancia") String instancia, @Param("progreso") int progreso);
+
+    /**
+     * Guarda el resultado o el error de un trabajo, solo si sigue siendo de la instancia indicada.
+     */
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.estado = :estado, j.progreso = :progreso, j.resultado = :resultado, " +
+           "j.error = :error, j.finalizadoEn = :finalizadoEn WHERE j.id = :id AND j.instancia = :instancia")
+    int finalizar(@Param("id") Long id,
+                  @Param("instancia") String instancia,
+                  @Param("estado") ReporteJob.EstadoJob estado,
+                  @Param("progreso") int progreso,
+                  @Param("resultado") String resultado,
+                  @Param("error") String error,
+                  @Param("finalizadoEn") LocalDateTime finalizadoEn);
+}
@@ -1,30 +1,257 @@
 package com.playmatch.service.repository;
 
+import com.playmatch.service.dto.ReporteReservasResponse;
 import com.playmatch.service.entity.Cancha;
-import com.playmatch.service.entity.Jugador;
+import com.playmatch.service.entity.Deporte;
 import com.playmatch.service.entity.Reserva;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+public interface ReservaRepository extends JpaRepository<Reserva, Long>, JpaSpecificationExecutor<Reserva>,
+        ReservaRepositoryCustom {
+
+    /**
+     * Vista liviana de una reserva que ocupa una franja horaria.
+     */
+    interface FranjaOcupada {
+        Long getId();
+
+        LocalDateTime getInicio();
+
+        LocalDateTime getFin();
+
+        Reserva.EstadoReserva getEstado();
+    }
+
+    /**
+     * Datos de una reserva y del usuario dueño de su cancha, leidos en una sola consulta.
+     */
+    interface DetalleReserva {
+        Long getId();
+
+        Long getCanchaId();
+
+        String getCanchaNombre();
+
+        Deporte getCanchaTipo();
+
+        Long getAdministradorCanchaId();
+
+        Long getUsuarioAdministradorId();
+
+        String getCliente();
+
+        Reserva.EstadoReserva getEstado();
+
+        LocalDateTime getInicio();
+
+        LocalDateTime getFin();
+
+        Double getMonto();
+    }
+
+    interface VencimientoPendiente {
+        Long getId();
+
+        LocalDateTime getVenceEn();
+    }
+
+    interface FilaAnalitica {
+        Long getId();
+
+        Long getCanchaId();
+
+        LocalDateTime getInicio();
+
+        LocalDateTime getFin();
+
+        Reserva.EstadoReserva getEstado();
+
+        Double getMonto();
+    }
+
+    interface MontoDiario {
+        LocalDate getFecha();
+
+        Double getMonto();
+    }
+
+    interface MontoDiarioCancha extends MontoDiario {
+        Long getCanchaId();
+    }
 
     @Query("SELECT r FROM Reserva r WHERE r.cancha = :cancha AND r.inicio < :fin AND r.fin > :inicio AND r.estado != 'CANCELADA'")
     List<Reserva> findOverlapping(@Param("cancha") Cancha cancha,
                                   @Param("inicio") LocalDateTime inicio,
                                   @Param("fin") LocalDateTime fin);
 
+    /**
+     * De las canchas dadas, las que tienen alguna reserva activa que se solapa con el intervalo.
+     */
+    @Query("SELECT DISTINCT r.cancha.id FROM Reserva r WHERE r.cancha.id IN :canchaIds " +
+           "AND r.inicio < :fin AND r.fin > :inicio AND r.estado != 'CANCELADA'")
+    List<Long> findCanchasConSolapamiento(@Param("canchaIds") Collection<Long> canchaIds,
+                                          @Param("inicio") LocalDateTime inicio,
+                                          @Param("fin") LocalDateTime fin);
+
+    @Query("SELECT r.id AS id, r.inicio AS inicio, r.fin AS fin, r.estado AS estado FROM Reserva r " +
+           "WHERE r.cancha.id = :canchaId AND r.fin > :desde AND r.estado != 'CANCELADA'")
+    List<FranjaOcupada> findFranjasActivas(@Param("canchaId") Long canchaId,
+                                           @Param("desde") LocalDateTime desde);
+
+    @Query("SELECT r.id AS id, r.inicio AS inicio, r.fin AS fin, r.estado AS estado FROM Reserva r " +
+           "WHERE r.cancha.id = :canchaId AND r.inicio < :hasta AND r.fin > :desde AND r.estado != 'CANCELADA'")
+    List<FranjaOcupada> findFranjasActivasEntre(@Param("canchaId") Long canchaId,
+                                                @Param("desde") LocalDateTime desde,
+                                                @Param("hasta") LocalDateTime hasta);
+
+    @Query("SELECT r.id AS id, c.id AS canchaId, c.nombre AS canchaNombre, c.tipo AS canchaTipo, " +
+           "a.id AS administradorCanchaId, u.id AS usuarioAdministradorId, j.nombre AS cliente, " +
+           "r.estado AS estado, r.inicio AS inicio, r.fin AS fin, r.monto AS monto " +
+           "FROM Reserva r JOIN r.cancha c JOIN r.jugador j LEFT JOIN c.administradorCancha a LEFT JOIN a.usuario u " +
+           "WHERE r.id = :id")
+    Optional<DetalleReserva> findDetalleById(@Param("id") Long id);
+
+    /**
+     * Cambia el estado de una reserva pendiente solo si la cancha pertenece al usuario indicado.
+     * Devuelve 0 si la reserva no existe, no esta pendiente o no es del usuario.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reserva r SET r.estado = :nuevoEstado " +
+           "WHERE r.id = :id AND (r.estado = 'PENDIENTE' OR r.estado IS NULL) " +
+           "AND r.cancha.id IN (SELECT c.id FROM Cancha c WHERE c.administradorCancha.usuario.id = :usuarioId)")
+    int cambiarEstadoPendiente(@Param("id") Long id,
+                               @Param("usuarioId") Long usuarioId,
+                               @Param("nuevoEstado") Reserva.EstadoReserva nuevoEstado);
+
+    @Query("SELECT r.id AS id, c.id AS canchaId, c.nombre AS canchaNombre, c.tipo AS canchaTipo, " +
+           "a.id AS administradorCanchaId, u.id AS usuarioAdministradorId, j.nombre AS cliente, " +
+           "r.estado AS estado, r.inicio AS inicio, r.fin AS fin, r.monto AS monto " +
+           "FROM Reserva r JOIN r.cancha c JOIN r.jugador j LEFT JOIN c.administradorCancha a LEFT JOIN a.usuario u " +
+           "WHERE r.id IN :ids")
+    List<DetalleReserva> findDetallesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.id AS id, c.id AS canchaId, r.inicio AS inicio, r.fin AS fin, r.estado AS estado, r.monto AS monto " +
+           "FROM Reserva r JOIN r.cancha c WHERE c.administradorCancha.id = :administradorId ORDER BY r.inicio")
+    List<FilaAnalitica> findFilasAnaliticas(@Param("administradorId") Long administradorId);
+
+    @Query("SELECT r.id AS id, r.venceEn AS venceEn FROM Reserva r WHERE r.estado = 'PENDIENTE' AND r.venceEn IS NOT NULL")
+    List<VencimientoPendiente> findVencimientosPendientes();
+
+    /**
+     * Bloquea las reservas indicadas que siguen pendientes y ya vencieron. Las filas que otra
+     * instancia tiene bloqueadas se saltean en lugar de esperar.
+     */
+    @Query(value = "SELECT id FROM reservas WHERE id IN (:ids) AND estado = 'PENDIENTE' AND vence_en <= :ahora " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> bloquearPendientesVencidas(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Query(value = "SELECT id FROM reservas WHERE estado = 'PENDIENTE' AND vence_en <= :ahora " +
+                   "ORDER BY vence_en LIMIT :lote FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> bloquearPendientesVencidas(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    /**
+     * Cambia el estado de reservas ya bloqueadas por la transaccion en curso.
+     */
+    @Modifying
+    @Query("UPDATE Reserva r SET r.estado = :estado WHERE r.id IN :ids")
+    int actualizarEstadoPorIds(@Param("ids") Collection<Long> ids, @Param("estado") Reserva.EstadoReserva estado);
+
+    /**
+     * Montos confirmados que todavia no se cobran (la reserva no termino), por cancha y fecha de inicio.
+     */
+    @Query("SELECT r.cancha.id AS canchaId, cast(r.inicio as LocalDate) AS fecha, SUM(r.monto) AS monto FROM Reserva r " +
+           "WHERE r.estado = 'CONFIRMADA' AND r.fin >= :ahora AND r.inicio >= :desde " +
+           "AND r.cancha.id IN (SELECT c.id FROM Cancha c WHERE c.administradorCancha.id = :administradorId) " +
+           "GROUP BY r.cancha.id, cast(r.inicio as LocalDate)")
+    List<MontoDiarioCancha> findMontosNoCobradosPorCanchaDelAdministrador(@Param("administradorId") Long administradorId,
+                                                          @Param("desde") LocalDateTime desde,
+                                                          @Param("ahora") LocalDateTime ahora);
+
+    @Query("SELECT cast(r.inicio as LocalDate) AS fecha, SUM(r.monto) AS monto FROM Reserva r " +
+           "WHERE r.estado = 'CONFIRMADA' AND r.fin >= :ahora AND r.inicio >= :desde AND r.cancha.id = :canchaId " +
+           "GROUP BY cast(r.inicio as LocalDate)")
+    List<MontoDiario> findMontosNoCobradosDeCancha(@Param("canchaId") Long canchaId,
+                                                  @Param("desde") LocalDateTime desde,
+                                                  @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Una fila de reporte por reserva que empieza en [desde, hasta). Solo cuenta como recaudado
+     * el monto de las confirmadas cuyo partido ya termino.
+     */
+    @Query("SELECT new com.playmatch.service.dto.ReporteReservasResponse(cast(r.inicio as LocalDate), " +
+           "cast(r.inicio as LocalTime), cast(r.fin as LocalTime), 1L, " +
+           "CASE WHEN r.estado = 'CONFIRMADA' AND r.fin < :ahora THEN coalesce(r.monto, 0.0) ELSE 0.0 END) " +
+           "FROM Reserva r WHERE r.inicio >= :desde AND r.inicio < :hasta " +
+           "AND r.cancha.id IN (SELECT c.id FROM Cancha c WHERE c.administradorCancha.id = :administradorId) " +
+           "ORDER BY r.inicio")
+    List<ReporteReservasResponse> findReporteDelAdministrador(@Param("administradorId") Long administradorId,
+                                                              @Param("desde") LocalDateTime desde,
+                                                              @Param("hasta") LocalDateTime hasta,
+                                                              @Param("ahora") LocalDateTime ahora);
+
+    @Query("SELECT new com.playmatch.service.dto.ReporteReservasResponse(cast(r.inicio as LocalDate), " +
+           "cast(r.inicio as LocalTime), cast(r.fin as LocalTime), 1L, " +
+           "CASE WHEN r.estado = 'CONFIRMADA' AND r.fin < :ahora THEN coalesce(r.monto, 0.0) ELSE 0.0 END) " +
+           "FROM Reserva r WHERE r.inicio >= :desde AND r.inicio < :hasta AND r.cancha.id = :canchaId " +
+           "ORDER BY r.inicio")
+    List<ReporteReservasResponse> findReporteDeCancha(@Param("canchaId") Long canchaId,
+                                                      @Param("desde") LocalDateTime desde,
+                                                      @Param("hasta") LocalDateTime hasta,
+                                                      @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Proximo fin de una reserva confirmada desde la fecha dada: a partir de ese instante cambia lo recaudado.
+     */
+    @Query("SELECT MIN(r.fin) FROM Reserva r WHERE r.estado = 'CONFIRMADA' AND r.fin >= :ahora AND r.inicio >= :desde " +
+           "AND r.cancha.id IN (SELECT c.id FROM Cancha c WHERE c.administradorCancha.id = :administradorId)")
+    LocalDateTime findProximoFinConfirmadoDelAdministrador(@Param("administradorId") Long administradorId,
+                                                          @Param("desde") LocalDateTime desde,
+                                                          @Param("ahora") LocalDateTime ahora);
+
+    @Query("SELECT MIN(r.fin) FROM Reserva r WHERE r.estado = 'CONFIRMADA' AND r.fin >= :ahora AND r.inicio >= :desde " +
+           "AND r.cancha.id = :canchaId")
+    LocalDateTime findProximoFinConfirmadoDeCancha(@Param("canchaId") Long canchaId,
+                                                  @Param("desde") LocalDateTime desde,
+                                                  @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Asigna vencimiento a las reservas pendientes que no lo tienen (creadas antes de existir el vencimiento).
+     */
+    @Modifying
+    @Query("UPDATE Reserva r SET r.venceEn = :venceEn WHERE r.estado = 'PENDIENTE' AND r.venceEn IS NULL")
+    int asignarVencimientoFaltante(@Param("venceEn") LocalDateTime venceEn);
+
     boolean existsByCancha(Cancha cancha);
 
     boolean existsByCanchaAndInicioAfter(Cancha cancha, java.time.LocalDateTime inicio);
 
-    List<Reserva> findByJugador(Jugador jugador);
+    /**
+     * De las canchas dadas, las que tienen alguna reserva que empieza despues del momento indicado.
+     */
+    @Query("SELECT DISTINCT r.cancha.id FROM Reserva r WHERE r.cancha.id IN :canchaIds AND r.inicio > :desde")
+    List<Long> findCanchasConReservasDespuesDe(@Param("canchaIds") Collection<Long> canchaIds,
+                                              @Param("desde") LocalDateTime desde);
+
+    interface UltimoInicioCancha {
+        Long getCanchaId();
+
+        LocalDateTime getUltimoInicio();
+    }
 
-    List<Reserva> findByCancha(Cancha cancha);
-    
-    @Query("SELECT r FROM Reserva r WHERE r.cancha.administradorCancha.id = :administradorId")
-    List<Reserva> findByAdministradorCanchaId(@Param("administradorId") Long administradorId);
+    /**
+     * Por cada cancha con reservas que empiezan despues del momento indicado, el inicio de la ultima.
+     */
+    @Query("SELECT r.cancha.id AS canchaId, MAX(r.inicio) AS ultimoInicio FROM Reserva r " +
+           "WHERE r.inicio > :desde GROUP BY r.cancha.id")
+    List<UltimoInicioCancha> findUltimoInicioPorCanchaDespuesDe(@Param("desde") LocalDateTime desde);
 }
@@ -0,0 +1,45 @@
+package com.playmatch.service.repository;
+
+import com.playmatch.service.dto.ReservaResponse;
+import com.playmatch.service.entity.Reserva;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ReservaRepositoryCustom {
+
+    /**
+     * Pagina de reservas filtrada y ordenada en la base, con paginacion por cursor (keyset).
+     * Las filas se proyectan directamente a {@link ReservaResponse} en una sola consulta, sin cargar entidades.
+     *
+     * @param cursor id de la ultima reserva de la pagina anterior, o null para la primera pagina
+     * @param limite cantidad maxima de filas, o null para traer todas
+     */
+    List<ReservaResponse> buscarPagina(Specification<Reserva> filtro, OrdenReservas orden, boolean descendente,
+                               Long cursor, Integer limite);
+
+    /**
+     * Recorre las reservas filtradas ordenadas por inicio, leyendo de a {@code fetchSize} filas por viaje.
+     * Debe consumirse y cerrarse dentro de una transaccion.
+     */
+    Stream<ReservaResponse> streamOrdenado(Specification<Reserva> filtro, int fetchSize);
+
+    /**
+     * Pasa a CONFIRMADA, con un solo UPDATE, las reservas pendientes de las canchas del administrador que
+     * cumplen el filtro, y devuelve cuantas confirmo y cuanto suman por cancha y dia de inicio. Los totales
+     * salen de las filas que modifico la misma sentencia, no de una lectura aparte.
+     *
+     * @param ids   si no es null, solo esas reservas
+     * @param desde si no es null, solo las que empiezan desde ese momento
+     * @param hasta si no es null, solo las que empiezan antes de ese momento
+     */
+    List<TotalConfirmado> confirmarPendientes(Long administradorId, Collection<Long> ids,
+                                              LocalDateTime desde, LocalDateTime hasta);
+
+    record TotalConfirmado(Long canchaId, LocalDate fecha, long cantidad, double monto) {
+    }
+}
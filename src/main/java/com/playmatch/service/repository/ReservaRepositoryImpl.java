@@ -0,0 +1,168 @@
+package com.playmatch.service.repository;
+
+import com.playmatch.service.dto.ReservaResponse;
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+class ReservaRepositoryImpl implements ReservaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ReservaResponse> buscarPagina(Specification<Reserva> filtro, OrdenReservas orden, boolean descendente,
+                                              Long cursor, Integer limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservaResponse> query = cb.createQuery(ReservaResponse.class);
+        Root<Reserva> root = query.from(Reserva.class);
+        query.select(proyeccion(root, cb));
+
+        Expression<Comparable<Object>> clave = orden.expresion(root, cb);
+        Expression<Long> id = root.get("id");
+
+        Predicate predicado = filtro.toPredicate(root, query, cb);
+        if (cursor != null) {
+            Predicate despuesDelCursor = despuesDe(cb, clave, id, valorDelCursor(orden, cursor), cursor, descendente);
+            predicado = predicado == null ? despuesDelCursor : cb.and(predicado, despuesDelCursor);
+        }
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(descendente
+                ? List.of(cb.desc(clave), cb.desc(id))
+                : List.of(cb.asc(clave), cb.asc(id)));
+
+        TypedQuery<ReservaResponse> typedQuery = entityManager.createQuery(query);
+        if (limite != null) {
+            typedQuery.setMaxResults(limite);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public Stream<ReservaResponse> streamOrdenado(Specification<Reserva> filtro, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservaResponse> query = cb.createQuery(ReservaResponse.class);
+        Root<Reserva> root = query.from(Reserva.class);
+        query.select(proyeccion(root, cb));
+        Predicate predicado = filtro.toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(cb.asc(root.get("inicio")), cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<TotalConfirmado> confirmarPendientes(Long administradorId, Collection<Long> ids,
+                                                     LocalDateTime desde, LocalDateTime hasta) {
+        StringBuilder update = new StringBuilder("UPDATE reservas SET estado = 'CONFIRMADA' WHERE estado = 'PENDIENTE' "
+                + "AND cancha_id IN (SELECT id FROM canchas WHERE administrador_cancha_id = :administradorId)");
+        if (ids != null) {
+            update.append(" AND id IN (:ids)");
+        }
+        if (desde != null) {
+            update.append(" AND inicio >= :desde");
+        }
+        if (hasta != null) {
+            update.append(" AND inicio < :hasta");
+        }
+        // Postgres devuelve las filas modificadas con RETURNING dentro de un CTE; H2 (pruebas y perfil de carga)
+        // no acepta ese CTE pero si leer las filas nuevas del UPDATE con FINAL TABLE
+        String totales = "SELECT cancha_id, CAST(inicio AS DATE) AS fecha, COUNT(*) AS cantidad, "
+                + "COALESCE(SUM(monto), 0) AS monto FROM ";
+        String agrupado = " GROUP BY cancha_id, CAST(inicio AS DATE) ORDER BY cancha_id, fecha";
+        String sql = esPostgres()
+                ? "WITH confirmadas AS (" + update + " RETURNING cancha_id, inicio, monto) " + totales + "confirmadas" + agrupado
+                : totales + "FINAL TABLE (" + update + ")" + agrupado;
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(Reserva.class)
+                .addScalar("cancha_id", StandardBasicTypes.LONG)
+                .addScalar("fecha", StandardBasicTypes.LOCAL_DATE)
+                .addScalar("cantidad", StandardBasicTypes.LONG)
+                .addScalar("monto", StandardBasicTypes.DOUBLE)
+                .setParameter("administradorId", administradorId);
+        if (ids != null) {
+            query.setParameterList("ids", ids);
+        }
+        if (desde != null) {
+            query.setParameter("desde", desde);
+        }
+        if (hasta != null) {
+            query.setParameter("hasta", hasta);
+        }
+        return query.getResultList().stream()
+                .map(fila -> new TotalConfirmado((Long) fila[0], (LocalDate) fila[1], (Long) fila[2], (Double) fila[3]))
+                .toList();
+    }
+
+    private boolean esPostgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    private CompoundSelection<ReservaResponse> proyeccion(Root<Reserva> root, CriteriaBuilder cb) {
+        return cb.construct(ReservaResponse.class,
+                root.get("id"),
+                root.get("cancha").get("id"),
+                root.get("cancha").get("nombre"),
+                root.get("cancha").get("tipo"),
+                root.get("jugador").get("nombre"),
+                root.get("estado"),
+                root.get("inicio"),
+                root.get("fin"),
+                root.get("monto"));
+    }
+
+    /**
+     * Lee el valor de ordenamiento de la fila del cursor, para continuar a partir de ella.
+     */
+    private Comparable<Object> valorDelCursor(OrdenReservas orden, Long cursor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<Reserva> root = query.from(Reserva.class);
+        query.select(orden.expresion(root, cb)).where(cb.equal(root.get("id"), cursor));
+        List<Object> valores = entityManager.createQuery(query).getResultList();
+        if (valores.isEmpty()) {
+            throw new BadRequestException("Cursor de paginacion invalido");
+        }
+        @SuppressWarnings("unchecked")
+        Comparable<Object> valor = (Comparable<Object>) valores.get(0);
+        return valor;
+    }
+
+    private Predicate despuesDe(CriteriaBuilder cb, Expression<Comparable<Object>> clave, Expression<Long> id,
+                                Comparable<Object> valor, Long cursor, boolean descendente) {
+        if (descendente) {
+            return cb.or(cb.lessThan(clave, valor),
+                    cb.and(cb.equal(clave, valor), cb.lessThan(id, cursor)));
+        }
+        return cb.or(cb.greaterThan(clave, valor),
+                cb.and(cb.equal(clave, valor), cb.greaterThan(id, cursor)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.playmatch.service.repository;
+
+import com.playmatch.service.entity.ReservaRollupDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReservaRollupDiariaRepository extends JpaRepository<ReservaRollupDiaria, ReservaRollupDiaria.Clave> {
+
+    interface TotalDiario {
+        LocalDate getFecha();
+
+        Long getCantidad();
+
+        Double getMontoConfirmado();
+    }
+
+    interface TotalDiarioCancha extends TotalDiario {
+        Long getCanchaId();
+    }
+
+    @Modifying
+    @Query("UPDATE ReservaRollupDiaria r SET r.cantidad = r.cantidad + :cantidad, " +
+           "r.montoConfirmado = r.montoConfirmado + :monto WHERE r.canchaId = :canchaId AND r.fecha = :fecha")
+    int sumar(@Param("canchaId") Long canchaId, @Param("fecha") LocalDate fecha,
+              @Param("cantidad") long cantidad, @Param("monto") double monto);
+
+    @Modifying
+    @Query("INSERT INTO ReservaRollupDiaria (canchaId, fecha, cantidad, montoConfirmado) " +
+           "VALUES (:canchaId, :fecha, :cantidad, :monto)")
+    int insertar(@Param("canchaId") Long canchaId, @Param("fecha") LocalDate fecha,
+                 @Param("cantidad") long cantidad, @Param("monto") double monto);
+
+    @Modifying
+    @Query("DELETE FROM ReservaRollupDiaria r WHERE r.canchaId = :canchaId")
+    int borrarDeCancha(@Param("canchaId") Long canchaId);
+
+    @Modifying
+    @Query("DELETE FROM ReservaRollupDiaria r")
+    int borrarTodo();
+
+    /**
+     * Recalcula todos los totales desde la tabla de reservas.
+     */
+    @Modifying
+    @Query("INSERT INTO ReservaRollupDiaria (canchaId, fecha, cantidad, montoConfirmado) " +
+           "SELECT r.cancha.id, cast(r.inicio as LocalDate), count(r), " +
+           "sum(case when r.estado = 'CONFIRMADA' then coalesce(r.monto, 0.0) else 0.0 end) " +
+           "FROM Reserva r GROUP BY r.cancha.id, cast(r.inicio as LocalDate)")
+    int reconstruir();
+
+    @Query("SELECT r.canchaId AS canchaId, r.fecha AS fecha, r.cantidad AS cantidad, r.montoConfirmado AS montoConfirmado " +
+           "FROM ReservaRollupDiaria r WHERE r.fecha >= :desde AND r.cantidad > 0 " +
+           "AND r.canchaId IN (SELECT c.id FROM Cancha c WHERE c.administradorCancha.id = :administradorId) " +
+           "ORDER BY r.canchaId, r.fecha")
+    List<TotalDiarioCancha> totalesPorCanchaDelAdministrador(@Param("administradorId") Long administradorId,
+                                                             @Param("desde") LocalDate desde);
+
+    @Query("SELECT r.fecha AS fecha, r.cantidad AS cantidad, r.montoConfirmado AS montoConfirmado " +
+           "FROM ReservaRollupDiaria r WHERE r.canchaId = :canchaId AND r.fecha >= :desde AND r.cantidad > 0 " +
+           "ORDER BY r.fecha")
+    List<TotalDiario> totalesDeCancha(@Param("canchaId") Long canchaId, @Param("desde") LocalDate desde);
+}
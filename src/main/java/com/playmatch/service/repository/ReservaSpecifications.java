@@ -0,0 +1,80 @@
+package com.playmatch.service.repository;
+
+import com.playmatch.service.entity.Reserva;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de reservas que se traducen a predicados SQL.
+ * Cada filtro devuelve un predicado nulo (sin efecto) cuando su parametro no se informa.
+ */
+public final class ReservaSpecifications {
+
+    private ReservaSpecifications() {
+    }
+
+    /**
+     * Filtros comunes de los listados de reservas.
+     */
+    public static Specification<Reserva> filtros(String estado, LocalDate fechaDesde, LocalDate fechaHasta,
+                                                 Long canchaId, String cliente) {
+        return Specification.allOf(
+                conEstado(estado),
+                desde(fechaDesde),
+                hasta(fechaHasta),
+                deCancha(canchaId),
+                conCliente(cliente));
+    }
+
+    public static Specification<Reserva> delJugador(Long jugadorId) {
+        return (root, query, cb) -> jugadorId == null ? null
+                : cb.equal(root.get("jugador").get("id"), jugadorId);
+    }
+
+    public static Specification<Reserva> deCancha(Long canchaId) {
+        return (root, query, cb) -> canchaId == null ? null
+                : cb.equal(root.get("cancha").get("id"), canchaId);
+    }
+
+    public static Specification<Reserva> delAdministrador(Long administradorCanchaId) {
+        return (root, query, cb) -> administradorCanchaId == null ? null
+                : cb.equal(root.get("cancha").get("administradorCancha").get("id"), administradorCanchaId);
+    }
+
+    public static Specification<Reserva> conEstado(String estado) {
+        return (root, query, cb) -> {
+            if (estado == null || estado.isBlank()) {
+                return null;
+            }
+            try {
+                return cb.equal(root.get("estado"), Reserva.EstadoReserva.valueOf(estado.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                return cb.disjunction(); // Un estado desconocido no coincide con ninguna reserva
+            }
+        };
+    }
+
+    public static Specification<Reserva> desde(LocalDate fechaDesde) {
+        return (root, query, cb) -> fechaDesde == null ? null
+                : cb.greaterThanOrEqualTo(root.get("inicio"), fechaDesde.atStartOfDay());
+    }
+
+    public static Specification<Reserva> hasta(LocalDate fechaHasta) {
+        return (root, query, cb) -> fechaHasta == null ? null
+                : cb.lessThan(root.get("inicio"), fechaHasta.plusDays(1).atStartOfDay());
+    }
+
+    public static Specification<Reserva> conCliente(String cliente) {
+        return (root, query, cb) -> {
+            if (cliente == null || cliente.isBlank()) {
+                return null;
+            }
+            String patron = "%" + cliente.toLowerCase()
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_") + "%";
+            return cb.like(cb.lower(root.get("jugador").get("nombre")), patron, '\\');
+        };
+    }
+}
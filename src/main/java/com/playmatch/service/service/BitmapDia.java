@@ -0,0 +1,101 @@
+package com.playmatch.service.service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapa de bits inmutable de un dia dividido en 96 cuartos de hora (bit 0 = 00:00-00:15).
+ * Se guarda en dos {@code long} para que cada cancha-dia ocupe 16 bytes en cache.
+ */
+public final class BitmapDia {
+
+    public static final int MINUTOS_POR_CUARTO = 15;
+    public static final int CUARTOS = 96;
+    public static final BitmapDia VACIO = new BitmapDia(0L, 0L);
+
+    private final long bajo;  // cuartos 0-63
+    private final long alto;  // cuartos 64-95
+
+    private BitmapDia(long bajo, long alto) {
+        this.bajo = bajo;
+        this.alto = alto;
+    }
+
+    /**
+     * Cuartos [desde, hasta) encendidos.
+     */
+    public static BitmapDia rango(int desde, int hasta) {
+        desde = Math.max(0, desde);
+        hasta = Math.min(CUARTOS, hasta);
+        if (desde >= hasta) {
+            return VACIO;
+        }
+        return new BitmapDia(mascara(desde, hasta, 0), mascara(desde, hasta, 64));
+    }
+
+    /**
+     * Cuartos contenidos por completo en el intervalo de minutos [minutoDesde, minutoHasta).
+     */
+    public static BitmapDia contenidos(int minutoDesde, int minutoHasta) {
+        return rango(Math.ceilDiv(minutoDesde, MINUTOS_POR_CUARTO), Math.floorDiv(minutoHasta, MINUTOS_POR_CUARTO));
+    }
+
+    /**
+     * Cuartos que tocan, aunque sea en parte, el intervalo de minutos [minutoDesde, minutoHasta).
+     */
+    public static BitmapDia tocados(int minutoDesde, int minutoHasta) {
+        return rango(Math.floorDiv(minutoDesde, MINUTOS_POR_CUARTO), Math.ceilDiv(minutoHasta, MINUTOS_POR_CUARTO));
+    }
+
+    private static long mascara(int desde, int hasta, int base) {
+        int a = Math.max(desde - base, 0);
+        int b = Math.min(hasta - base, 64);
+        if (a >= b) {
+            return 0L;
+        }
+        long alto = b == 64 ? -1L : (1L << b) - 1;
+        return alto & (-1L << a);
+    }
+
+    public BitmapDia union(BitmapDia otro) {
+        return new BitmapDia(bajo | otro.bajo, alto | otro.alto);
+    }
+
+    public BitmapDia menos(BitmapDia otro) {
+        return new BitmapDia(bajo & ~otro.bajo, alto & ~otro.alto);
+    }
+
+    public boolean contiene(int cuarto) {
+        return cuarto < 64 ? (bajo & (1L << cuarto)) != 0 : (alto & (1L << (cuarto - 64))) != 0;
+    }
+
+    public int cantidad() {
+        return Long.bitCount(bajo) + Long.bitCount(alto);
+    }
+
+    /**
+     * Tramos consecutivos de cuartos encendidos, como pares [inicio, fin).
+     * Un fin a las 24:00 se informa como {@link LocalTime#MIDNIGHT}.
+     */
+    public List<LocalTime[]> tramos() {
+        List<LocalTime[]> tramos = new ArrayList<>();
+        int cuarto = 0;
+        while (cuarto < CUARTOS) {
+            if (!contiene(cuarto)) {
+                cuarto++;
+                continue;
+            }
+            int inicio = cuarto;
+            while (cuarto < CUARTOS && contiene(cuarto)) {
+                cuarto++;
+            }
+            tramos.add(new LocalTime[]{horaDeCuarto(inicio), horaDeCuarto(cuarto)});
+        }
+        return tramos;
+    }
+
+    private static LocalTime horaDeCuarto(int cuarto) {
+        return cuarto >= CUARTOS ? LocalTime.MIDNIGHT : LocalTime.ofSecondOfDay(cuarto * MINUTOS_POR_CUARTO * 60L);
+    }
+}
@@ -1,40 +1,71 @@
 package com.playmatch.service.service;
 
+import com.playmatch.service.dto.CanchaCercanaResponse;
 import com.playmatch.service.dto.CanchaRequest;
 import com.playmatch.service.dto.CanchaResponse;
 import com.playmatch.service.dto.HorarioIntervalDTO;
+import com.playmatch.service.dto.PaginaCanchasCercanas;
 import com.playmatch.service.entity.AdministradorCancha;
 import com.playmatch.service.entity.Cancha;
 import com.playmatch.service.entity.CanchaHorario;
+import com.playmatch.service.entity.Deporte;
 import com.playmatch.service.entity.Role;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.exception.BadRequestException;
 import com.playmatch.service.exception.NotFoundException;
 import com.playmatch.service.repository.AdministradorCanchaRepository;
 import com.playmatch.service.repository.CanchaRepository;
 import com.playmatch.service.repository.ReservaRepository;
 import com.playmatch.service.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class CanchaService {
 
+    private static final int LIMITE_CERCANAS_POR_DEFECTO = 20;
+    private static final int MAX_LIMITE_CERCANAS = 100;
+    // Primer radio que se prueba en la busqueda de cercanas, a partir de la distancia del cursor; se cuadruplica hasta juntar una pagina
+    private static final double RADIO_INICIAL_CERCANAS_KM = 2;
+
     private final CanchaRepository canchaRepository;
     private final AdministradorCanchaRepository administradorCanchaRepository;
     private final ReservaRepository reservaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HorarioCanchaCache horarioCanchaCache;
+    private final CatalogoCanchas catalogoCanchas;
+    private final double radioMaximoCercanasKm;
 
-    public CanchaService(CanchaRepository canchaRepository, AdministradorCanchaRepository administradorCanchaRepository, ReservaRepository reservaRepository) {
+    public CanchaService(CanchaRepository canchaRepository, AdministradorCanchaRepository administradorCanchaRepository,
+                         ReservaRepository reservaRepository, ApplicationEventPublisher eventPublisher,
+                         HorarioCanchaCache horarioCanchaCache, CatalogoCanchas catalogoCanchas,
+                         @Value("${playmatch.canchas.cercanas.radio-maximo-km:100}") double radioMaximoCercanasKm) {
         this.canchaRepository = canchaRepository;
         this.administradorCanchaRepository = administradorCanchaRepository;
         this.reservaRepository = reservaRepository;
+        this.eventPublisher = eventPublisher;
+        this.horarioCanchaCache = horarioCanchaCache;
+        this.catalogoCanchas = catalogoCanchas;
+        this.radioMaximoCercanasKm = radioMaximoCercanasKm;
     }
 
     @Transactional
@@ -57,7 +88,8 @@ public class CanchaService {
         applyHorarios(cancha, request.getHorarios());
         cancha.setAdministradorCancha(administradorCancha);
         Cancha guardada = canchaRepository.save(cancha);
-        return toResponse(guardada);
+        eventPublisher.publishEvent(new CanchaCambiadaEvent(guardada.getId(), administradorCancha.getId(), false));
+        return toResponse(guardada, false);
     }
 
     private UserPrincipal getAuthenticatedPrincipal() {
@@ -68,12 +100,135 @@ public class CanchaService {
         return principal;
     }
 
+    /**
+     * Canchas a {@code radioKm} o menos del punto, filtradas en memoria sobre el snapshot del catalogo.
+     * Con {@code inicio} y {@code fin} devuelve solo las que se pueden reservar en ese intervalo: abiertas segun
+     * su horario y sin reservas activas que se solapen, esto ultimo con una sola consulta para todas las
+     * candidatas. Con {@code deporte}, solo las de ese tipo.
+     */
+    public List<CanchaResponse> buscarDisponibles(double latitud, double longitud, double radioKm,
+                                                  LocalDateTime inicio, LocalDateTime fin, String deporte) {
+        if ((inicio == null) != (fin == null)) {
+            throw new BadRequestException("Para buscar por horario se deben indicar inicio y fin");
+        }
+        if (inicio != null && !fin.isAfter(inicio)) {
+            throw new BadRequestException("La hora de fin debe ser posterior a la de inicio");
+        }
+        Deporte tipo = parsearDeporte(deporte);
+
+        List<CanchaResponse> candidatas = filtrarCatalogo(catalogoCanchas.snapshot(), latitud, longitud, radioKm, inicio, fin, tipo);
+        if (inicio != null && !candidatas.isEmpty()) {
+            Set<Long> ocupadas = new HashSet<>(reservaRepository.findCanchasConSolapamiento(
+                    candidatas.stream().map(CanchaResponse::getId).toList(), inicio, fin));
+            candidatas.removeIf(cancha -> ocupadas.contains(cancha.getId()));
+        }
+        return candidatas;
+    }
+
+    private static Deporte parsearDeporte(String deporte) {
+        if (deporte == null || deporte.isBlank()) {
+            return null;
+        }
+        try {
+            return Deporte.valueOf(deporte.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Deporte invalido: " + deporte);
+        }
+    }
+
+    /**
+     * Canchas mas cercanas al punto, de la mas cercana a la mas lejana, hasta {@code radioKm} (por defecto el maximo
+     * configurado). Filtra en la base por un rectangulo que arranca chico y se agranda hasta juntar la pagina, calcula
+     * la distancia exacta sobre esos candidatos y se queda con los primeros en un heap acotado.
+     *
+     * @param cursor valor opaco devuelto con la pagina anterior: la distancia y el id de su ultima cancha.
+     *               La siguiente empieza despues de ella, y la busqueda arranca en esa distancia en vez de
+     *               volver a recorrer los radios chicos que ya agoto
+     */
     @Transactional(readOnly = true)
-    public List<CanchaResponse> buscarDisponibles(double latitud, double longitud, double radioKm) {
-        return canchaRepository.findAll().stream()
-                .filter(cancha -> distanciaKm(latitud, longitud, cancha.getLatitud(), cancha.getLongitud()) <= radioKm)
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public PaginaCanchasCercanas buscarCercanas(double latitud, double longitud, Double radioKm, Integer limite, String cursor) {
+        if (latitud < -90 || latitud > 90 || longitud < -180 || longitud > 180) {
+            throw new BadRequestException("Coordenadas invalidas");
+        }
+        double radioMaximo = radioKm != null ? radioKm : radioMaximoCercanasKm;
+        if (radioMaximo <= 0 || radioMaximo > radioMaximoCercanasKm) {
+            throw new BadRequestException("El radio debe ser mayor a 0 y de hasta " + radioMaximoCercanasKm + " km");
+        }
+        int tamanio = limite != null ? limite : LIMITE_CERCANAS_POR_DEFECTO;
+        if (tamanio < 1 || tamanio > MAX_LIMITE_CERCANAS) {
+            throw new BadRequestException("El limite debe estar entre 1 y " + MAX_LIMITE_CERCANAS);
+        }
+        Candidata desde = cursor != null ? Candidata.desdeCursor(cursor) : null;
+        // Los radios se miden desde la distancia del cursor: 2, 8, 32 km mas alla de la pagina anterior
+        double base = desde != null ? desde.distanciaKm() : 0;
+
+        // Se junta una de mas para saber si hay otra pagina
+        PriorityQueue<Candidata> mejores = new PriorityQueue<>(tamanio + 1, Candidata.ORDEN.reversed());
+        double radio = Math.min(base + RADIO_INICIAL_CERCANAS_KM, radioMaximo);
+        while (true) {
+            mejores.clear();
+            for (CanchaRepository.CoordenadaCancha c : coordenadasEnRadio(latitud, longitud, radio)) {
+                Candidata candidata = new Candidata(c.getId(),
+                        GeoUtils.distanciaKm(latitud, longitud, c.getLatitud(), c.getLongitud()));
+                if (candidata.distanciaKm() > radio || (desde != null && Candidata.ORDEN.compare(candidata, desde) <= 0)) {
+                    continue;
+                }
+                mejores.add(candidata);
+                if (mejores.size() > tamanio + 1) {
+                    mejores.poll();
+                }
+            }
+            // Lo que queda fuera del circulo esta mas lejos que todo lo juntado
+            if (mejores.size() > tamanio || radio >= radioMaximo) {
+                break;
+            }
+            radio = Math.min(base + (radio - base) * 4, radioMaximo);
+        }
+
+        List<Candidata> ordenadas = new ArrayList<>(mejores);
+        ordenadas.sort(Candidata.ORDEN);
+        String siguienteCursor = null;
+        if (ordenadas.size() > tamanio) {
+            ordenadas = ordenadas.subList(0, tamanio);
+            siguienteCursor = ordenadas.get(tamanio - 1).aCursor();
+        }
+        Map<Long, Cancha> canchas = canchaRepository.findAllById(ordenadas.stream().map(Candidata::canchaId).toList()).stream()
+                .collect(Collectors.toMap(Cancha::getId, Function.identity()));
+        Set<Long> conReservasFuturas = Set.copyOf(canchas.isEmpty() ? List.of()
+                : reservaRepository.findCanchasConReservasDespuesDe(canchas.keySet(), LocalDateTime.now()));
+        List<CanchaCercanaResponse> respuesta = new ArrayList<>(ordenadas.size());
+        for (Candidata candidata : ordenadas) {
+            Cancha cancha = canchas.get(candidata.canchaId());
+            if (cancha != null) {
+                respuesta.add(new CanchaCercanaResponse(toResponse(cancha, conReservasFuturas.contains(cancha.getId())),
+                        candidata.distanciaKm()));
+            }
+        }
+        return new PaginaCanchasCercanas(respuesta, siguienteCursor);
+    }
+
+    /**
+     * Canchas del rectangulo que contiene al circulo; si cruza el antimeridiano se consulta en dos partes.
+     */
+    private List<CanchaRepository.CoordenadaCancha> coordenadasEnRadio(double latitud, double longitud, double radioKm) {
+        double gradosLatitud = radioKm / GeoUtils.KM_POR_GRADO;
+        double gradosLongitud = GeoUtils.gradosLongitud(latitud, radioKm);
+        double latitudDesde = Math.max(-90, latitud - gradosLatitud);
+        double latitudHasta = Math.min(90, latitud + gradosLatitud);
+        if (gradosLongitud >= 180) {
+            return canchaRepository.findCoordenadasEnRectangulo(latitudDesde, latitudHasta, -180, 180);
+        }
+        double longitudDesde = longitud - gradosLongitud;
+        double longitudHasta = longitud + gradosLongitud;
+        List<CanchaRepository.CoordenadaCancha> coordenadas = new ArrayList<>(
+                canchaRepository.findCoordenadasEnRectangulo(latitudDesde, latitudHasta,
+                        Math.max(-180, longitudDesde), Math.min(180, longitudHasta)));
+        if (longitudDesde < -180) {
+            coordenadas.addAll(canchaRepository.findCoordenadasEnRectangulo(latitudDesde, latitudHasta, longitudDesde + 360, 180));
+        } else if (longitudHasta > 180) {
+            coordenadas.addAll(canchaRepository.findCoordenadasEnRectangulo(latitudDesde, latitudHasta, -180, longitudHasta - 360));
+        }
+        return coordenadas;
     }
 
     @Transactional
@@ -92,14 +247,16 @@ public class CanchaService {
         cancha.setHorarioApertura(request.getHorarioApertura());
         cancha.setHorarioCierre(request.getHorarioCierre());
         applyHorarios(cancha, request.getHorarios());
-        return toResponse(canchaRepository.save(cancha));
+        Cancha actualizada = canchaRepository.save(cancha);
+        eventPublisher.publishEvent(new CanchaCambiadaEvent(actualizada.getId(), administradorCancha.getId(), false));
+        return toResponse(actualizada);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Todas las canchas, desde el snapshot del catalogo: no consulta la base.
+     */
     public List<CanchaResponse> listarTodas() {
-        return canchaRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return catalogoCanchas.snapshot().canchas();
     }
 
     @Transactional
@@ -124,7 +281,9 @@ public class CanchaService {
         cancha.setHorarioCierre(request.getHorarioCierre());
         cancha.setTipo(request.getTipo());
         applyHorarios(cancha, request.getHorarios());
-        return toResponse(canchaRepository.save(cancha));
+        Cancha actualizada = canchaRepository.save(cancha);
+        eventPublisher.publishEvent(new CanchaCambiadaEvent(actualizada.getId(), administradorCancha.getId(), false));
+        return toResponse(actualizada);
     }
 
     @Transactional
@@ -144,20 +303,35 @@ public class CanchaService {
             throw new AccessDeniedException("No se puede eliminar: la cancha tiene reservas asociadas");
         }
         canchaRepository.delete(cancha);
+        eventPublisher.publishEvent(new CanchaCambiadaEvent(canchaId, administradorCancha.getId(), true));
     }
 
-    private double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
-        double radioTierra = 6371;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return radioTierra * c;
+    /**
+     * Parte en memoria de {@link #buscarDisponibles}: canchas del snapshot dentro del radio, del deporte
+     * pedido y, si hay intervalo, con horario habilitado en el. No mira las reservas.
+     */
+    static List<CanchaResponse> filtrarCatalogo(CatalogoCanchas.Snapshot catalogo, double latitud, double longitud,
+                                                double radioKm, LocalDateTime inicio, LocalDateTime fin, Deporte tipo) {
+        List<CanchaResponse> candidatas = new ArrayList<>();
+        for (Long id : catalogo.grilla().buscarEnRadio(latitud, longitud, radioKm)) {
+            CanchaResponse cancha = catalogo.porId().get(id);
+            if ((tipo == null || cancha.getTipo() == tipo)
+                    && (inicio == null || catalogo.horarios().get(id).permite(inicio, fin))) {
+                candidatas.add(cancha);
+            }
+        }
+        return candidatas;
     }
 
     private CanchaResponse toResponse(Cancha cancha) {
+        return toResponse(cancha, reservaRepository.existsByCanchaAndInicioAfter(cancha, LocalDateTime.now()));
+    }
+
+    private CanchaResponse toResponse(Cancha cancha, boolean tieneReservasFuturas) {
+        return toResponse(cancha, horarioCanchaCache.obtener(cancha), tieneReservasFuturas);
+    }
+
+    static CanchaResponse toResponse(Cancha cancha, HorarioCompilado horario, boolean tieneReservasFuturas) {
         CanchaResponse response = new CanchaResponse();
         response.setId(cancha.getId());
         response.setNombre(cancha.getNombre());
@@ -168,18 +342,14 @@ public class CanchaService {
         response.setHorarioApertura(cancha.getHorarioApertura());
         response.setHorarioCierre(cancha.getHorarioCierre());
         response.setTipo(cancha.getTipo());
-        if (cancha.getHorarios() != null) {
-            response.setHorarios(cancha.getHorarios().stream()
-                    .sorted((a,b) -> a.getInicio().compareTo(b.getInicio()))
-                    .map(h -> {
-                HorarioIntervalDTO dto = new HorarioIntervalDTO();
-                dto.setInicio(h.getInicio());
-                dto.setFin(h.getFin());
-                return dto;
-            }).collect(Collectors.toList()));
-        }
-        boolean futuras = reservaRepository.existsByCanchaAndInicioAfter(cancha, LocalDateTime.now());
-        response.setTieneReservasFuturas(futuras);
+        response.setHorarios(horario.configurados().stream()
+                .map(h -> {
+            HorarioIntervalDTO dto = new HorarioIntervalDTO();
+            dto.setInicio(h.inicio());
+            dto.setFin(h.fin());
+            return dto;
+        }).toList());
+        response.setTieneReservasFuturas(tieneReservasFuturas);
         return response;
     }
 
@@ -197,4 +367,36 @@ public class CanchaService {
             }
         }
     }
+
+    private record Candidata(Long canchaId, double distanciaKm) {
+        static final Comparator<Candidata> ORDEN = Comparator.comparingDouble(Candidata::distanciaKm)
+                .thenComparing(Candidata::canchaId);
+
+        /**
+         * Distancia exacta (los bits del double, para que la comparacion con el cursor no pierda precision) e id,
+         * en base64 URL.
+         */
+        String aCursor() {
+            ByteBuffer bytes = ByteBuffer.allocate(2 * Long.BYTES).putDouble(distanciaKm).putLong(canchaId);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+        }
+
+        static Candidata desdeCursor(String cursor) {
+            byte[] bytes;
+            try {
+                bytes = Base64.getUrlDecoder().decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Cursor invalido");
+            }
+            if (bytes.length != 2 * Long.BYTES) {
+                throw new BadRequestException("Cursor invalido");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            double distanciaKm = buffer.getDouble();
+            if (!(distanciaKm >= 0)) {
+                throw new BadRequestException("Cursor invalido");
+            }
+            return new Candidata(buffer.getLong(), distanciaKm);
+        }
+    }
 }
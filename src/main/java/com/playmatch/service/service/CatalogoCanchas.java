@@ -0,0 +1,184 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.CanchaResponse;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.repository.CanchaRepository;
+import com.playmatch.service.repository.ReservaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Catalogo publico de canchas como snapshot inmutable: las respuestas ya armadas, con sus horarios compilados
+ * y una grilla para buscar por radio. Las lecturas toman la referencia actual y trabajan en memoria, sin
+ * transaccion, sin sesion de Hibernate y sin locks. Cada cambio de cancha, y cada reserva creada o eliminada
+ * que puede cambiar {@code tieneReservasFuturas}, pide reconstruirlo en un hilo aparte; el nuevo snapshot
+ * reemplaza al anterior de una vez. Los pedidos que llegan mientras se reconstruye se atienden juntos con
+ * una sola reconstruccion mas.
+ */
+@Component
+public class CatalogoCanchas {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoCanchas.class);
+
+    private final CanchaRepository canchaRepository;
+    private final ReservaRepository reservaRepository;
+    private final CatalogoVersion catalogoVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final double celdaKm;
+    private final Duration ttl;
+    private final ExecutorService executor;
+
+    private final AtomicReference<Snapshot> actual = new AtomicReference<>();
+    private final AtomicLong pedidos = new AtomicLong();
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    public CatalogoCanchas(CanchaRepository canchaRepository, ReservaRepository reservaRepository,
+                           CatalogoVersion catalogoVersion, PlatformTransactionManager transactionManager,
+                           @Value("${playmatch.canchas.indice.celda-km:5}") double celdaKm,
+                           @Value("${playmatch.canchas.catalogo.ttl:PT5M}") Duration ttl) {
+        this.canchaRepository = canchaRepository;
+        this.reservaRepository = reservaRepository;
+        this.catalogoVersion = catalogoVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.celdaKm = celdaKm;
+        this.ttl = ttl;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("catalogo-canchas-", 0).factory());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Snapshot vigente. Solo la primera lectura, si llega antes que la carga inicial, lo arma en el hilo
+     * que llama. Si esta vencido se sigue usando mientras se arma el siguiente.
+     */
+    Snapshot snapshot() {
+        Snapshot snapshot = actual.get();
+        if (snapshot == null) {
+            actual.compareAndSet(null, construir());
+            return actual.get();
+        }
+        if (!LocalDateTime.now().isBefore(snapshot.vigenteHasta()) && !reconstruyendo.get()) {
+            solicitarReconstruccion();
+        }
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        solicitarReconstruccion();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCanchaCambiada(CanchaCambiadaEvent event) {
+        solicitarReconstruccion();
+    }
+
+    /**
+     * Una reserva futura creada en una cancha sin reservas futuras, o eliminada de una que las tenia,
+     * puede cambiar {@code tieneReservasFuturas}. Los cambios de estado no: se cuentan tambien las canceladas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        Snapshot snapshot = actual.get();
+        if (snapshot == null || event.getInicio() == null || !event.getInicio().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        CanchaResponse cancha = snapshot.porId().get(event.getCanchaId());
+        boolean creada = event.getEstadoAnterior() == null;
+        boolean eliminada = event.getEstadoNuevo() == null;
+        if (cancha != null && ((creada && !cancha.isTieneReservasFuturas()) || (eliminada && cancha.isTieneReservasFuturas()))) {
+            solicitarReconstruccion();
+        }
+    }
+
+    private void solicitarReconstruccion() {
+        pedidos.incrementAndGet();
+        if (reconstruyendo.compareAndSet(false, true)) {
+            executor.execute(this::reconstruirMientrasHayaPedidos);
+        }
+    }
+
+    private void reconstruirMientrasHayaPedidos() {
+        while (true) {
+            long atendidos = pedidos.get();
+            try {
+                actual.set(construir());
+                catalogoVersion.avanzar();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo reconstruir el catalogo de canchas; se sigue usando el anterior", e);
+            }
+            if (pedidos.get() == atendidos) {
+                reconstruyendo.set(false);
+                // Un pedido que llego justo antes de soltar la marca no lanzo otra reconstruccion: atenderlo aca
+                if (pedidos.get() == atendidos || !reconstruyendo.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Snapshot construir() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            Map<Long, LocalDateTime> ultimoInicio = new HashMap<>();
+            reservaRepository.findUltimoInicioPorCanchaDespuesDe(ahora)
+                    .forEach(u -> ultimoInicio.put(u.getCanchaId(), u.getUltimoInicio()));
+
+            List<Cancha> canchas = new ArrayList<>(canchaRepository.findAll());
+            canchas.sort(Comparator.comparing(Cancha::getId));
+            List<CanchaResponse> respuestas = new ArrayList<>(canchas.size());
+            Map<Long, CanchaResponse> porId = new HashMap<>(canchas.size() * 2);
+            Map<Long, HorarioCompilado> horarios = new HashMap<>(canchas.size() * 2);
+            // Hasta cuando vale el snapshot: el TTL, o antes si empieza la ultima reserva futura de alguna cancha
+            LocalDateTime vigenteHasta = ahora.plus(ttl);
+            for (Cancha cancha : canchas) {
+                HorarioCompilado horario = HorarioCompilado.de(cancha);
+                LocalDateTime ultima = ultimoInicio.get(cancha.getId());
+                CanchaResponse respuesta = CanchaService.toResponse(cancha, horario, ultima != null);
+                respuestas.add(respuesta);
+                porId.put(cancha.getId(), respuesta);
+                horarios.put(cancha.getId(), horario);
+                if (ultima != null && ultima.isBefore(vigenteHasta)) {
+                    vigenteHasta = ultima;
+                }
+            }
+            List<CanchaResponse> inmutables = List.copyOf(respuestas);
+            return new Snapshot(inmutables, Map.copyOf(porId), Map.copyOf(horarios),
+                    new GrillaCanchas(celdaKm, inmutables), vigenteHasta);
+        });
+    }
+
+    /**
+     * Las {@link CanchaResponse} se comparten entre todas las lecturas: no se deben modificar.
+     */
+    record Snapshot(List<CanchaResponse> canchas, Map<Long, CanchaResponse> porId,
+                    Map<Long, HorarioCompilado> horarios, GrillaCanchas grilla, LocalDateTime vigenteHasta) {
+    }
+}
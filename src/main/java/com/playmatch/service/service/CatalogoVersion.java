@@ -0,0 +1,48 @@
+package com.playmatch.service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version del catalogo publico de canchas, para responder con ETag y 304 sin consultar la base.
+ * Avanza cada vez que {@link CatalogoCanchas} publica un snapshot nuevo (cambios de canchas y reservas
+ * creadas o eliminadas que cambian {@code tieneReservasFuturas}). El ETag suma ademas una ventana de
+ * tiempo, por los cambios hechos en otra instancia, que no llegan como evento.
+ */
+@Component
+public class CatalogoVersion {
+
+    // Arranca en la hora actual para no repetir, tras un reinicio, un ETag que los clientes ya vieron
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final long ventanaMillis;
+    private final CacheControl cacheControl;
+
+    public CatalogoVersion(@Value("${playmatch.canchas.catalogo.ventana-etag:PT1M}") Duration ventanaEtag,
+                           @Value("${playmatch.canchas.catalogo.max-age:PT30S}") Duration maxAge) {
+        this.ventanaMillis = ventanaEtag.toMillis();
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().mustRevalidate();
+    }
+
+    /**
+     * ETag fuerte de la version actual. Hay que leerlo antes de armar la respuesta: si el catalogo cambia
+     * mientras tanto, la respuesta queda con un ETag viejo y el cliente la vuelve a pedir, nunca al reves.
+     */
+    public String etag() {
+        return "\"c" + version.get() + "-" + System.currentTimeMillis() / ventanaMillis + "\"";
+    }
+
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+
+    /**
+     * Se llama despues de publicar el snapshot nuevo: quien lea la version nueva ya lee ese snapshot.
+     */
+    void avanzar() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,297 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.entity.Reserva;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reservas de un administrador guardadas por columnas de tipos primitivos. Las filas cargadas desde la base
+ * quedan ordenadas por dia, lo que permite ubicar el inicio de un rango con busqueda binaria; las que se
+ * agregan despues quedan al final y se recorren completas. Una reserva eliminada se marca y no se compacta
+ * hasta la proxima recarga. No es thread-safe: el llamador sincroniza sobre la instancia.
+ */
+final class ColumnasReservas {
+
+    static final int MINUTOS_DIA = 24 * 60;
+    private static final byte ELIMINADA = -1;
+    private static final byte CONFIRMADA = (byte) Reserva.EstadoReserva.CONFIRMADA.ordinal();
+
+    /**
+     * Acumulados por cubeta; {@code claves} es el epochDay, la hora o el id de cancha segun la agrupacion.
+     */
+    static final class Totales {
+        final long[] claves;
+        final long[] reservas;
+        final long[] confirmadas;
+        final long[] recaudadoCentavos;
+
+        Totales(int cubetas) {
+            claves = new long[cubetas];
+            reservas = new long[cubetas];
+            confirmadas = new long[cubetas];
+            recaudadoCentavos = new long[cubetas];
+        }
+    }
+
+    /**
+     * Minutos ocupados y recaudado de una cancha por dia de la semana (lunes = 0) y celda horaria,
+     * en arreglos de {@code 7 * celdasPorDia} posiciones.
+     */
+    static final class Ocupacion {
+        final int celdasPorDia;
+        final long[] minutos;
+        final long[] recaudadoCentavos;
+
+        Ocupacion(int celdasPorDia) {
+            this.celdasPorDia = celdasPorDia;
+            minutos = new long[7 * celdasPorDia];
+            recaudadoCentavos = new long[7 * celdasPorDia];
+        }
+    }
+
+    private static final byte CANCELADA = (byte) Reserva.EstadoReserva.CANCELADA.ordinal();
+
+    private int[] dias = new int[0];
+    // Minutos desde el inicio del dia de la reserva; el fin puede pasar de 1440 si cruza la medianoche
+    // y va en int porque una reserva de mas de ~22 dias no entra en un short
+    private short[] inicios = new short[0];
+    private int[] fines = new int[0];
+    private byte[] estados = new byte[0];
+    private long[] centavos = new long[0];
+    // Posicion de la cancha en canchaIds, para agrupar por cancha sin buscar en un mapa
+    private int[] canchas = new int[0];
+    private long[] canchaIds = new long[0];
+    private int cantidadCanchas;
+    private final Map<Long, Integer> posicionesCanchas = new HashMap<>();
+    private final Map<Long, Integer> posiciones = new HashMap<>();
+    private int tamano;
+    private int ordenadas;
+    LocalDateTime cargadaEn;
+
+    boolean vencida(Duration ttl) {
+        return cargadaEn == null || cargadaEn.plus(ttl).isBefore(LocalDateTime.now());
+    }
+
+    void limpiar() {
+        posiciones.clear();
+        posicionesCanchas.clear();
+        tamano = 0;
+        ordenadas = 0;
+        cantidadCanchas = 0;
+    }
+
+    /**
+     * Marca como ordenadas todas las filas presentes; se llama al terminar una carga ordenada por inicio.
+     */
+    void marcarOrdenadas() {
+        ordenadas = tamano;
+    }
+
+    void agregar(long id, long canchaId, LocalDateTime inicio, LocalDateTime fin, Reserva.EstadoReserva estado, Double monto) {
+        Integer existente = posiciones.get(id);
+        int fila = existente != null ? existente : reservarFila(id);
+        int dia = (int) inicio.toLocalDate().toEpochDay();
+        if (existente != null && fila < ordenadas && dias[fila] != dia) {
+            // Cambio el dia y se rompe el orden: las filas desde aca se recorren completas
+            ordenadas = fila;
+        }
+        dias[fila] = dia;
+        inicios[fila] = (short) (inicio.toLocalTime().toSecondOfDay() / 60);
+        fines[fila] = (int) (inicios[fila] + ChronoUnit.MINUTES.between(inicio, fin));
+        estados[fila] = codigo(estado);
+        centavos[fila] = monto != null ? Math.round(monto * 100) : 0;
+        canchas[fila] = posicionCancha(canchaId);
+    }
+
+    void quitar(long id) {
+        Integer fila = posiciones.remove(id);
+        if (fila != null) {
+            estados[fila] = ELIMINADA;
+        }
+    }
+
+    /**
+     * Totaliza las reservas que empiezan en [desdeDia, hastaDia], de todas las canchas o solo de la indicada.
+     * Solo suma como recaudado el monto de las confirmadas cuyo fin es anterior a {@code ahoraMinuto}
+     * (minutos desde la epoca).
+     */
+    Totales totalizar(ReservaColumnStore.Agrupacion agrupacion, int desdeDia, int hastaDia, Long canchaId, long ahoraMinuto) {
+        int cubetas = switch (agrupacion) {
+            case DIA -> hastaDia - desdeDia + 1;
+            case HORA -> 24;
+            case CANCHA -> cantidadCanchas;
+        };
+        Totales totales = new Totales(cubetas);
+        for (int c = 0; c < cubetas; c++) {
+            totales.claves[c] = switch (agrupacion) {
+                case DIA -> desdeDia + c;
+                case HORA -> c;
+                case CANCHA -> canchaIds[c];
+            };
+        }
+        int filtro = -1;
+        if (canchaId != null) {
+            filtro = posicionExistente(canchaId);
+            if (filtro < 0) {
+                return totales;
+            }
+        }
+        int i = primeraFila(desdeDia);
+        for (; i < ordenadas && dias[i] <= hastaDia; i++) {
+            if (filtro < 0 || canchas[i] == filtro) {
+                acumular(totales, i, cubeta(agrupacion, i, desdeDia), ahoraMinuto);
+            }
+        }
+        for (i = ordenadas; i < tamano; i++) {
+            if (dias[i] >= desdeDia && dias[i] <= hastaDia && (filtro < 0 || canchas[i] == filtro)) {
+                acumular(totales, i, cubeta(agrupacion, i, desdeDia), ahoraMinuto);
+            }
+        }
+        return totales;
+    }
+
+    private int cubeta(ReservaColumnStore.Agrupacion agrupacion, int fila, int desdeDia) {
+        return switch (agrupacion) {
+            case DIA -> dias[fila] - desdeDia;
+            case HORA -> inicios[fila] / 60;
+            case CANCHA -> canchas[fila];
+        };
+    }
+
+    /**
+     * Reparte los minutos de cada reserva no cancelada que empieza en [desdeDia, hastaDia] entre las celdas
+     * de {@code minutosCelda} que atraviesa, sin pasar del fin de hastaDia. El recaudado va a la celda de inicio.
+     * Con {@code canchaId} solo se recorre esa cancha.
+     *
+     * @return la ocupacion de cada cancha, por id
+     */
+    Map<Long, Ocupacion> ocupacion(int desdeDia, int hastaDia, Long canchaId, long ahoraMinuto, int minutosCelda) {
+        int celdasPorDia = MINUTOS_DIA / minutosCelda;
+        Map<Long, Ocupacion> resultado = new HashMap<>();
+        int filtro = -1;
+        if (canchaId != null) {
+            filtro = posicionExistente(canchaId);
+            if (filtro < 0) {
+                return resultado;
+            }
+        }
+        Ocupacion[] porPosicion = new Ocupacion[cantidadCanchas];
+        for (int c = 0; c < cantidadCanchas; c++) {
+            if (filtro < 0 || c == filtro) {
+                porPosicion[c] = new Ocupacion(celdasPorDia);
+                resultado.put(canchaIds[c], porPosicion[c]);
+            }
+        }
+        long limite = (long) (hastaDia + 1) * MINUTOS_DIA;
+        int i = primeraFila(desdeDia);
+        for (; i < ordenadas && dias[i] <= hastaDia; i++) {
+            if (filtro < 0 || canchas[i] == filtro) {
+                acumularOcupacion(porPosicion[canchas[i]], i, minutosCelda, limite, ahoraMinuto);
+            }
+        }
+        for (i = ordenadas; i < tamano; i++) {
+            if (dias[i] >= desdeDia && dias[i] <= hastaDia && (filtro < 0 || canchas[i] == filtro)) {
+                acumularOcupacion(porPosicion[canchas[i]], i, minutosCelda, limite, ahoraMinuto);
+            }
+        }
+        return resultado;
+    }
+
+    private void acumularOcupacion(Ocupacion ocupacion, int fila, int minutosCelda, long limite, long ahoraMinuto) {
+        byte estado = estados[fila];
+        if (estado == ELIMINADA || estado == CANCELADA) {
+            return;
+        }
+        long inicio = (long) dias[fila] * MINUTOS_DIA + inicios[fila];
+        long fin = Math.min((long) dias[fila] * MINUTOS_DIA + fines[fila], limite);
+        if (estado == CONFIRMADA && (long) dias[fila] * MINUTOS_DIA + fines[fila] < ahoraMinuto) {
+            ocupacion.recaudadoCentavos[celda(inicio, minutosCelda, ocupacion.celdasPorDia)] += centavos[fila];
+        }
+        for (long minuto = inicio; minuto < fin; ) {
+            long finCelda = Math.min(fin, (minuto / minutosCelda + 1) * minutosCelda);
+            ocupacion.minutos[celda(minuto, minutosCelda, ocupacion.celdasPorDia)] += finCelda - minuto;
+            minuto = finCelda;
+        }
+    }
+
+    /**
+     * Celda del minuto dado (desde la epoca); el 1/1/1970 fue jueves, de ahi el desplazamiento de 3.
+     */
+    private static int celda(long minuto, int minutosCelda, int celdasPorDia) {
+        int diaSemana = (int) Math.floorMod(Math.floorDiv(minuto, MINUTOS_DIA) + 3, 7L);
+        return diaSemana * celdasPorDia + (int) (Math.floorMod(minuto, MINUTOS_DIA) / minutosCelda);
+    }
+
+    private void acumular(Totales totales, int fila, int cubeta, long ahoraMinuto) {
+        byte estado = estados[fila];
+        if (estado == ELIMINADA) {
+            return;
+        }
+        totales.reservas[cubeta]++;
+        if (estado == CONFIRMADA) {
+            totales.confirmadas[cubeta]++;
+            if ((long) dias[fila] * MINUTOS_DIA + fines[fila] < ahoraMinuto) {
+                totales.recaudadoCentavos[cubeta] += centavos[fila];
+            }
+        }
+    }
+
+    /**
+     * Primera fila ordenada cuyo dia es mayor o igual al dado.
+     */
+    private int primeraFila(int dia) {
+        int bajo = 0;
+        int alto = ordenadas;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (dias[medio] < dia) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private int reservarFila(long id) {
+        if (tamano == dias.length) {
+            int capacidad = Math.max(64, tamano * 2);
+            dias = Arrays.copyOf(dias, capacidad);
+            inicios = Arrays.copyOf(inicios, capacidad);
+            fines = Arrays.copyOf(fines, capacidad);
+            estados = Arrays.copyOf(estados, capacidad);
+            centavos = Arrays.copyOf(centavos, capacidad);
+            canchas = Arrays.copyOf(canchas, capacidad);
+        }
+        posiciones.put(id, tamano);
+        return tamano++;
+    }
+
+    private int posicionExistente(long canchaId) {
+        Integer posicion = posicionesCanchas.get(canchaId);
+        return posicion != null ? posicion : -1;
+    }
+
+    private int posicionCancha(long canchaId) {
+        Integer existente = posicionesCanchas.get(canchaId);
+        if (existente != null) {
+            return existente;
+        }
+        if (cantidadCanchas == canchaIds.length) {
+            canchaIds = Arrays.copyOf(canchaIds, Math.max(8, cantidadCanchas * 2));
+        }
+        canchaIds[cantidadCanchas] = canchaId;
+        posicionesCanchas.put(canchaId, cantidadCanchas);
+        return cantidadCanchas++;
+    }
+
+    private static byte codigo(Reserva.EstadoReserva estado) {
+        // Las reservas viejas sin estado se tratan como pendientes, igual que en el resto del servicio
+        return (byte) (estado != null ? estado : Reserva.EstadoReserva.PENDIENTE).ordinal();
+    }
+}
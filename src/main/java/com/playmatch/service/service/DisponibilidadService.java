@@ -0,0 +1,201 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.FranjaDisponibleResponse;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasCambiadasEnLoteEvent;
+import com.playmatch.service.exception.BadRequestException;
+import com.playmatch.service.exception.NotFoundException;
+import com.playmatch.service.repository.CanchaRepository;
+import com.playmatch.service.repository.ReservaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calcula las franjas libres de una cancha como horario habilitado menos reservas activas.
+ * Cada cancha-dia se guarda como un {@link BitmapDia} en una cache LRU que se invalida
+ * cuando cambia una reserva o la cancha, de modo que un calendario ya consultado no va a la base.
+ */
+@Service
+public class DisponibilidadService {
+
+    private static final int MAX_DIAS_CONSULTA = 62;
+    private static final int DIAS_POR_DEFECTO = 14;
+
+    private final CanchaRepository canchaRepository;
+    private final ReservaRepository reservaRepository;
+    private final HorarioCanchaCache horarioCanchaCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ClaveDia, BitmapDia> cache;
+    // Generacion por cancha: se incrementa en cada invalidacion para descartar cargas de esa
+    // cancha que leyeron datos ya viejos, sin afectar las cargas de las demas. Solo tiene canchas
+    // existentes: la entrada se quita al eliminar la cancha o si la carga no la encuentra
+    private final Map<Long, AtomicLong> generaciones = new ConcurrentHashMap<>();
+
+    public DisponibilidadService(CanchaRepository canchaRepository,
+                                 ReservaRepository reservaRepository,
+                                 HorarioCanchaCache horarioCanchaCache,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${playmatch.disponibilidad.cache.max-entradas:20000}") int maxEntradas) {
+        this.canchaRepository = canchaRepository;
+        this.reservaRepository = reservaRepository;
+        this.horarioCanchaCache = horarioCanchaCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ClaveDia, BitmapDia> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    public List<FranjaDisponibleResponse> consultar(Long canchaId, LocalDate desde, LocalDate hasta) {
+        LocalDate inicio = desde != null ? desde : LocalDate.now();
+        LocalDate fin = hasta != null ? hasta : inicio.plusDays(DIAS_POR_DEFECTO - 1);
+        if (fin.isBefore(inicio)) {
+            throw new BadRequestException("La fecha hasta debe ser posterior o igual a la fecha desde");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fin) >= MAX_DIAS_CONSULTA) {
+            throw new BadRequestException("El rango de disponibilidad no puede superar los " + MAX_DIAS_CONSULTA + " dias");
+        }
+
+        Map<LocalDate, BitmapDia> libres = new HashMap<>();
+        List<LocalDate> faltantes = new ArrayList<>();
+        synchronized (cache) {
+            for (LocalDate dia = inicio; !dia.isAfter(fin); dia = dia.plusDays(1)) {
+                BitmapDia bitmap = cache.get(new ClaveDia(canchaId, dia.toEpochDay()));
+                if (bitmap != null) {
+                    libres.put(dia, bitmap);
+                } else {
+                    faltantes.add(dia);
+                }
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            libres.putAll(cargar(canchaId, faltantes));
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<FranjaDisponibleResponse> franjas = new ArrayList<>();
+        for (LocalDate dia = inicio; !dia.isAfter(fin); dia = dia.plusDays(1)) {
+            for (LocalTime[] tramo : libres.get(dia).tramos()) {
+                LocalDateTime tramoFin = tramo[1] == LocalTime.MIDNIGHT ? dia.plusDays(1).atStartOfDay() : dia.atTime(tramo[1]);
+                if (!tramoFin.isAfter(ahora)) {
+                    continue;
+                }
+                // El tramo en curso se informa desde el proximo cuarto de hora
+                LocalTime tramoInicio = tramo[0];
+                if (dia.atTime(tramoInicio).isBefore(ahora)) {
+                    int minuto = Math.ceilDiv(ahora.toLocalTime().toSecondOfDay(), BitmapDia.MINUTOS_POR_CUARTO * 60) * BitmapDia.MINUTOS_POR_CUARTO;
+                    if (dia.atStartOfDay().plusMinutes(minuto).compareTo(tramoFin) >= 0) {
+                        continue;
+                    }
+                    tramoInicio = LocalTime.MIN.plusMinutes(minuto);
+                }
+                franjas.add(new FranjaDisponibleResponse(dia, tramoInicio, tramo[1]));
+            }
+        }
+        return franjas;
+    }
+
+    private Map<LocalDate, BitmapDia> cargar(Long canchaId, List<LocalDate> dias) {
+        AtomicLong generacion = generacion(canchaId);
+        long generacionInicial = generacion.get();
+        Map<LocalDate, BitmapDia> calculados = transactionTemplate.execute(status -> {
+            Cancha cancha = canchaRepository.findById(canchaId).orElse(null);
+            if (cancha == null) {
+                generaciones.remove(canchaId, generacion);
+                throw new NotFoundException("Cancha no encontrada");
+            }
+            BitmapDia abiertos = horarioCanchaCache.obtener(cancha).cuartos();
+
+            LocalDate primero = dias.get(0);
+            LocalDate ultimo = dias.get(dias.size() - 1);
+            Map<LocalDate, BitmapDia> ocupados = new HashMap<>();
+            reservaRepository.findFranjasActivasEntre(canchaId, primero.atStartOfDay(), ultimo.plusDays(1).atStartOfDay())
+                    .forEach(f -> marcarOcupacion(ocupados, f.getInicio(), f.getFin()));
+
+            Map<LocalDate, BitmapDia> resultado = new HashMap<>();
+            for (LocalDate dia : dias) {
+                resultado.put(dia, abiertos.menos(ocupados.getOrDefault(dia, BitmapDia.VACIO)));
+            }
+            return resultado;
+        });
+        synchronized (cache) {
+            // Si la entrada se quito y se volvio a crear, las invalidaciones ya no pasan por la que se leyo al empezar
+            if (generaciones.get(canchaId) == generacion && generacion.get() == generacionInicial) {
+                calculados.forEach((dia, bitmap) -> cache.put(new ClaveDia(canchaId, dia.toEpochDay()), bitmap));
+            }
+        }
+        return calculados;
+    }
+
+    private void marcarOcupacion(Map<LocalDate, BitmapDia> ocupados, LocalDateTime inicio, LocalDateTime fin) {
+        for (LocalDate dia = inicio.toLocalDate(); dia.atStartOfDay().isBefore(fin); dia = dia.plusDays(1)) {
+            int desde = inicio.toLocalDate().equals(dia) ? inicio.toLocalTime().toSecondOfDay() / 60 : 0;
+            int hasta = fin.toLocalDate().equals(dia) ? Math.ceilDiv(fin.toLocalTime().toSecondOfDay(), 60) : 24 * 60;
+            ocupados.merge(dia, BitmapDia.tocados(desde, hasta), BitmapDia::union);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        invalidar(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservasCambiadasEnLote(ReservasCambiadasEnLoteEvent event) {
+        invalidar(event.getCambios());
+    }
+
+    private void invalidar(List<ReservaCambiadaEvent> cambios) {
+        cambios.stream()
+                .map(ReservaCambiadaEvent::getCanchaId)
+                .distinct()
+                .forEach(canchaId -> generacion(canchaId).incrementAndGet());
+        synchronized (cache) {
+            for (ReservaCambiadaEvent cambio : cambios) {
+                LocalDateTime fin = cambio.getFin();
+                for (LocalDate dia = cambio.getInicio().toLocalDate(); dia.atStartOfDay().isBefore(fin); dia = dia.plusDays(1)) {
+                    cache.remove(new ClaveDia(cambio.getCanchaId(), dia.toEpochDay()));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCanchaCambiada(CanchaCambiadaEvent event) {
+        if (event.isEliminada()) {
+            generaciones.remove(event.getCanchaId());
+        } else {
+            generacion(event.getCanchaId()).incrementAndGet();
+        }
+        synchronized (cache) {
+            cache.keySet().removeIf(clave -> clave.canchaId().equals(event.getCanchaId()));
+        }
+    }
+
+    private AtomicLong generacion(Long canchaId) {
+        return generaciones.computeIfAbsent(canchaId, id -> new AtomicLong());
+    }
+
+    private record ClaveDia(Long canchaId, long epochDay) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.playmatch.service.service;
+
+/**
+ * Calculos sobre coordenadas geograficas en grados.
+ */
+final class GeoUtils {
+
+    static final double RADIO_TIERRA_KM = 6371;
+    // Largo de un grado de latitud (y de longitud sobre el ecuador)
+    static final double KM_POR_GRADO = Math.PI * RADIO_TIERRA_KM / 180;
+
+    private GeoUtils() {
+    }
+
+    /**
+     * Distancia sobre la superficie terrestre (haversine) entre dos puntos.
+     */
+    static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return RADIO_TIERRA_KM * c;
+    }
+
+    /**
+     * Grados de longitud que abarcan {@code radioKm} a la latitud dada, tomando el paralelo mas cercano
+     * al polo dentro del radio. Devuelve 180 o mas si el radio llega a un polo (cualquier longitud vale).
+     */
+    static double gradosLongitud(double latitud, double radioKm) {
+        double latitudExtrema = Math.abs(latitud) + radioKm / KM_POR_GRADO;
+        if (latitudExtrema >= 90) {
+            return 180;
+        }
+        return radioKm / (KM_POR_GRADO * Math.cos(Math.toRadians(latitudExtrema)));
+    }
+}
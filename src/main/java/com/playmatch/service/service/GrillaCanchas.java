@@ -0,0 +1,108 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.CanchaResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indice espacial inmutable de las canchas: una grilla de celdas de lado fijo en grados. Una busqueda por
+ * radio solo recorre las celdas que cubren el rectangulo del circulo y calcula la distancia exacta sobre
+ * esas canchas, asi su costo depende de cuantas hay cerca y no del total. Se arma una vez por snapshot del
+ * catalogo y despues solo se lee, sin sincronizacion.
+ */
+final class GrillaCanchas {
+
+    private final double celdaGrados;
+    private final int filas;
+    private final int columnas;
+    private final long[] ids;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    // Por celda, posiciones en los arreglos de arriba
+    private final Map<Long, int[]> porCelda;
+
+    GrillaCanchas(double celdaKm, List<CanchaResponse> canchas) {
+        this.celdaGrados = celdaKm / GeoUtils.KM_POR_GRADO;
+        this.filas = (int) Math.ceil(180 / celdaGrados);
+        this.columnas = (int) Math.ceil(360 / celdaGrados);
+        this.ids = new long[canchas.size()];
+        this.latitudes = new double[canchas.size()];
+        this.longitudes = new double[canchas.size()];
+
+        Map<Long, List<Integer>> celdas = new HashMap<>();
+        for (int i = 0; i < canchas.size(); i++) {
+            CanchaResponse cancha = canchas.get(i);
+            ids[i] = cancha.getId();
+            latitudes[i] = cancha.getLatitud();
+            longitudes[i] = cancha.getLongitud();
+            celdas.computeIfAbsent(clave(fila(latitudes[i]), columna(longitudes[i])), c -> new ArrayList<>()).add(i);
+        }
+        Map<Long, int[]> porCelda = new HashMap<>(celdas.size() * 2);
+        celdas.forEach((celda, posiciones) -> porCelda.put(celda, posiciones.stream().mapToInt(Integer::intValue).toArray()));
+        this.porCelda = porCelda;
+    }
+
+    /**
+     * Ids de las canchas a {@code radioKm} o menos del punto, de menor a mayor.
+     */
+    List<Long> buscarEnRadio(double latitud, double longitud, double radioKm) {
+        List<Long> encontradas = new ArrayList<>();
+        if (radioKm < 0 || ids.length == 0) {
+            return encontradas;
+        }
+
+        double gradosLatitud = radioKm / GeoUtils.KM_POR_GRADO;
+        double gradosLongitud = GeoUtils.gradosLongitud(latitud, radioKm);
+        int filaDesde = fila(Math.max(-90, latitud - gradosLatitud));
+        int filaHasta = fila(Math.min(90, latitud + gradosLatitud));
+        int columnaDesde = 0;
+        int cantidadColumnas = columnas;
+        if (gradosLongitud < 180) {
+            columnaDesde = (int) Math.floor((longitud - gradosLongitud + 180) / celdaGrados);
+            int columnaHasta = (int) Math.floor((longitud + gradosLongitud + 180) / celdaGrados);
+            cantidadColumnas = Math.min(columnas, columnaHasta - columnaDesde + 1);
+        }
+
+        if ((long) (filaHasta - filaDesde + 1) * cantidadColumnas > ids.length) {
+            // Radio enorme frente a la cantidad de canchas: recorrerlas todas es mas barato que visitar las celdas
+            for (int i = 0; i < ids.length; i++) {
+                agregarSiEsta(i, latitud, longitud, radioKm, encontradas);
+            }
+        } else {
+            for (int fila = filaDesde; fila <= filaHasta; fila++) {
+                for (int i = 0; i < cantidadColumnas; i++) {
+                    // floorMod da la vuelta por el antimeridiano
+                    int[] celda = porCelda.get(clave(fila, Math.floorMod(columnaDesde + i, columnas)));
+                    if (celda != null) {
+                        for (int posicion : celda) {
+                            agregarSiEsta(posicion, latitud, longitud, radioKm, encontradas);
+                        }
+                    }
+                }
+            }
+        }
+        encontradas.sort(null);
+        return encontradas;
+    }
+
+    private void agregarSiEsta(int posicion, double latitud, double longitud, double radioKm, List<Long> encontradas) {
+        if (GeoUtils.distanciaKm(latitud, longitud, latitudes[posicion], longitudes[posicion]) <= radioKm) {
+            encontradas.add(ids[posicion]);
+        }
+    }
+
+    private int fila(double latitud) {
+        return Math.min(filas - 1, (int) Math.floor((latitud + 90) / celdaGrados));
+    }
+
+    private int columna(double longitud) {
+        return Math.floorMod((int) Math.floor((longitud + 180) / celdaGrados), columnas);
+    }
+
+    private long clave(int fila, int columna) {
+        return (long) fila * columnas + columna;
+    }
+}
@@ -0,0 +1,80 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de {@link HorarioCompilado} por cancha. Evita recorrer la coleccion lazy de horarios
+ * en cada reserva y en cada respuesta del catalogo.
+ */
+@Component
+public class HorarioCanchaCache {
+
+    private final Map<Long, Entrada> porCancha = new ConcurrentHashMap<>();
+    // Se incrementa en cada invalidacion para descartar compilaciones hechas con datos ya viejos
+    private final AtomicLong generacion = new AtomicLong();
+    private final long ttlNanos;
+
+    public HorarioCanchaCache(@Value("${playmatch.canchas.horarios.ttl:PT10M}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Devuelve el horario compilado de la cancha, compilandolo desde la entidad si no esta en cache.
+     */
+    public HorarioCompilado obtener(Cancha cancha) {
+        Entrada entrada = porCancha.get(cancha.getId());
+        long ahora = System.nanoTime();
+        if (entrada != null && ahora - entrada.compiladoEn() < ttlNanos) {
+            return entrada.horario();
+        }
+        long generacionInicial = generacion.get();
+        HorarioCompilado horario = HorarioCompilado.de(cancha);
+        if (cancha.getId() != null) {
+            synchronized (porCancha) {
+                if (generacion.get() == generacionInicial) {
+                    porCancha.put(cancha.getId(), new Entrada(horario, ahora));
+                }
+            }
+        }
+        return horario;
+    }
+
+    /**
+     * Corre antes que los demas listeners de la cancha, que pueden recompilar el horario (p. ej. la disponibilidad).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCanchaCambiada(CanchaCambiadaEvent event) {
+        invalidar(event.getCanchaId());
+    }
+
+    /**
+     * La transaccion revertida pudo haber compilado y cacheado horarios que no se guardaron.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onCanchaCambiadaRevertida(CanchaCambiadaEvent event) {
+        invalidar(event.getCanchaId());
+    }
+
+    private void invalidar(Long canchaId) {
+        generacion.incrementAndGet();
+        synchronized (porCancha) {
+            porCancha.remove(canchaId);
+        }
+    }
+
+    private record Entrada(HorarioCompilado horario, long compiladoEn) {
+    }
+}
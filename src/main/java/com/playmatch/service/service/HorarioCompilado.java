@@ -0,0 +1,155 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.entity.CanchaHorario;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Horario habilitado de una cancha compilado a intervalos diarios [inicio, fin) en minutos del dia,
+ * ordenados y fusionados. Un intervalo cuyo fin no es posterior a su inicio cruza la medianoche
+ * (22:00-02:00) y se parte en [22:00, 24:00) y [00:00, 02:00). Inmutable.
+ */
+public final class HorarioCompilado {
+
+    static final int MINUTOS_DIA = 24 * 60;
+
+    public record Intervalo(LocalTime inicio, LocalTime fin) {
+    }
+
+    // Intervalos tal como los cargo el administrador, ordenados por inicio
+    private final List<Intervalo> configurados;
+    private final int[] inicios;
+    private final int[] fines;
+    private final BitmapDia cuartos;
+
+    private HorarioCompilado(List<Intervalo> configurados, int[] inicios, int[] fines) {
+        this.configurados = configurados;
+        this.inicios = inicios;
+        this.fines = fines;
+        BitmapDia habilitados = BitmapDia.VACIO;
+        for (int i = 0; i < inicios.length; i++) {
+            habilitados = habilitados.union(BitmapDia.contenidos(inicios[i], fines[i]));
+        }
+        this.cuartos = habilitados;
+    }
+
+    public static HorarioCompilado de(Cancha cancha) {
+        List<Intervalo> configurados = new ArrayList<>();
+        if (cancha.getHorarios() != null) {
+            for (CanchaHorario h : cancha.getHorarios()) {
+                configurados.add(new Intervalo(h.getInicio(), h.getFin()));
+            }
+        }
+        configurados.sort(Comparator.comparing(Intervalo::inicio));
+
+        List<int[]> tramos = new ArrayList<>();
+        if (!configurados.isEmpty()) {
+            configurados.forEach(intervalo -> partir(intervalo.inicio(), intervalo.fin(), tramos));
+        } else {
+            // Fallback a ventana unica de apertura/cierre si no hay intervalos cargados
+            LocalTime apertura = cancha.getHorarioApertura() != null ? cancha.getHorarioApertura() : LocalTime.MIN;
+            LocalTime cierre = cancha.getHorarioCierre() != null ? cancha.getHorarioCierre() : LocalTime.MIDNIGHT;
+            partir(apertura, cierre, tramos);
+        }
+        tramos.sort(Comparator.comparingInt(t -> t[0]));
+
+        // Fusionar tramos solapados o contiguos
+        int[] inicios = new int[tramos.size()];
+        int[] fines = new int[tramos.size()];
+        int cantidad = 0;
+        for (int[] tramo : tramos) {
+            if (cantidad > 0 && tramo[0] <= fines[cantidad - 1]) {
+                fines[cantidad - 1] = Math.max(fines[cantidad - 1], tramo[1]);
+            } else {
+                inicios[cantidad] = tramo[0];
+                fines[cantidad] = tramo[1];
+                cantidad++;
+            }
+        }
+        return new HorarioCompilado(List.copyOf(configurados),
+                Arrays.copyOf(inicios, cantidad), Arrays.copyOf(fines, cantidad));
+    }
+
+    private static void partir(LocalTime inicio, LocalTime fin, List<int[]> tramos) {
+        int desde = inicio.toSecondOfDay() / 60;
+        int hasta = fin.toSecondOfDay() / 60;
+        if (hasta > desde) {
+            tramos.add(new int[]{desde, hasta});
+            return;
+        }
+        tramos.add(new int[]{desde, MINUTOS_DIA});
+        if (hasta > 0) {
+            tramos.add(new int[]{0, hasta});
+        }
+    }
+
+    /**
+     * Indica si el intervalo [inicio, fin) cae por completo dentro del horario habilitado,
+     * incluso si atraviesa la medianoche y el horario continua al dia siguiente.
+     */
+    public boolean permite(LocalDateTime inicio, LocalDateTime fin) {
+        int desde = inicio.toLocalTime().toSecondOfDay() / 60;
+        long hasta = desde + Math.ceilDiv(Duration.between(inicio.withSecond(0).withNano(0), fin).getSeconds(), 60);
+        int indice = buscar(desde);
+        if (indice < 0) {
+            return false;
+        }
+        long cubierto = fines[indice];
+        while (cubierto < hasta) {
+            // Solo se puede seguir si el tramo llega a la medianoche y el dia siguiente abre a las 00:00
+            if (cubierto % MINUTOS_DIA != 0 || inicios[0] != 0) {
+                return false;
+            }
+            cubierto += fines[0];
+        }
+        return true;
+    }
+
+    /**
+     * Indice del tramo que contiene el minuto dado, o -1 si cae fuera del horario.
+     */
+    private int buscar(int minuto) {
+        int bajo = 0;
+        int alto = inicios.length - 1;
+        int candidato = -1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] <= minuto) {
+                candidato = medio;
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return candidato >= 0 && minuto < fines[candidato] ? candidato : -1;
+    }
+
+    /**
+     * Minutos habilitados dentro de [desde, hasta), ambos en minutos desde la medianoche.
+     */
+    public int minutosHabilitados(int desde, int hasta) {
+        int total = 0;
+        for (int i = 0; i < inicios.length && inicios[i] < hasta; i++) {
+            total += Math.max(0, Math.min(fines[i], hasta) - Math.max(inicios[i], desde));
+        }
+        return total;
+    }
+
+    /**
+     * Cuartos de hora del dia completamente habilitados.
+     */
+    public BitmapDia cuartos() {
+        return cuartos;
+    }
+
+    public List<Intervalo> configurados() {
+        return configurados;
+    }
+}
@@ -0,0 +1,38 @@
+package com.playmatch.service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecucion de una sola vez para recalcular el rollup diario desde las reservas:
+ * {@code java -jar play-match-service.jar --spring.profiles.active=reconstruir-rollup}. Arranca sin abrir el puerto HTTP,
+ * reconstruye y termina antes de que la aplicacion quede lista, asi que no atiende pedidos ni corre tareas de fondo.
+ * Puede lanzarse con las instancias en linea: la reconstruccion toma el mismo bloqueo de tarea que ellas.
+ */
+@Component
+@Profile("reconstruir-rollup")
+public class ReconstruccionRollupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstruccionRollupRunner.class);
+
+    private final ReservaRollupService reservaRollupService;
+    private final ConfigurableApplicationContext context;
+
+    public ReconstruccionRollupRunner(ReservaRollupService reservaRollupService, ConfigurableApplicationContext context) {
+        this.reservaRollupService = reservaRollupService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int filas = reservaRollupService.reconstruir();
+        log.info("Rollup diario de reservas reconstruido: {} filas", filas);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,155 @@
+package com.playmatch.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasCambiadasEnLoteEvent;
+import com.playmatch.service.event.ReservasConfirmadasEnLoteEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache acotada de reportes de reservas por administrador o cancha y periodo. El periodo de la clave
+ * distingue tambien las vistas de un mismo alcance (por ejemplo, el desglose por cancha del administrador).
+ * <p>
+ * Una entrada se invalida cuando cambia una reserva o una cancha de ese administrador o cancha, y vence sola
+ * en el proximo fin de una reserva confirmada (desde ahi cuenta como recaudada) o a la medianoche
+ * (cambia la ventana del periodo), lo que ocurra primero. Las metricas se publican como {@code cache.*}
+ * con {@code cache=reportes}.
+ */
+@Component
+public class ReporteCache {
+
+    public enum Alcance { ADMINISTRADOR, CANCHA }
+
+    public record Clave(Alcance alcance, Long id, String periodo) {
+    }
+
+    /**
+     * Reporte calculado junto con el instante a partir del cual deja de ser valido.
+     */
+    public record Resultado(List<?> filas, LocalDateTime validoHasta) {
+    }
+
+    private record Ambito(Alcance alcance, Long id) {
+    }
+
+    private final Cache<Clave, Resultado> cache;
+    // Generacion por administrador o cancha: se incrementa al invalidar ese ambito para descartar
+    // reportes suyos calculados con datos ya viejos, sin afectar a los demas
+    private final Map<Ambito, AtomicLong> generaciones = new ConcurrentHashMap<>();
+    // Se incrementa al vaciar toda la cache
+    private final AtomicLong generacionGlobal = new AtomicLong();
+
+    public ReporteCache(MeterRegistry meterRegistry,
+                        @Value("${playmatch.reportes.cache.max-entradas:1000}") long maxEntradas,
+                        @Value("${playmatch.reportes.cache.ttl:PT5M}") Duration ttl) {
+        long ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new Expiry<Clave, Resultado>() {
+                    @Override
+                    public long expireAfterCreate(Clave clave, Resultado resultado, long currentTime) {
+                        long restante = Duration.between(LocalDateTime.now(), resultado.validoHasta()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, restante));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Clave clave, Resultado resultado, long currentTime, long currentDuration) {
+                        return expireAfterCreate(clave, resultado, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Clave clave, Resultado resultado, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reportes");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> obtener(Clave clave, Supplier<Resultado> calcular) {
+        Resultado resultado = cache.getIfPresent(clave);
+        if (resultado != null) {
+            return (List<T>) resultado.filas();
+        }
+        AtomicLong generacion = generacion(new Ambito(clave.alcance(), clave.id()));
+        long generacionInicial = generacion.get();
+        long generacionGlobalInicial = generacionGlobal.get();
+        resultado = calcular.get();
+        synchronized (this) {
+            if (generacion.get() == generacionInicial && generacionGlobal.get() == generacionGlobalInicial) {
+                cache.put(clave, resultado);
+            }
+        }
+        return (List<T>) resultado.filas();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        invalidar(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservasCambiadasEnLote(ReservasCambiadasEnLoteEvent event) {
+        invalidar(event.getCambios());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservasConfirmadasEnLote(ReservasConfirmadasEnLoteEvent event) {
+        invalidar(Set.of(event.getAdministradorCanchaId()), event.getCanchaIds());
+    }
+
+    /**
+     * Crear, renombrar, cambiar horarios o eliminar una cancha cambia los reportes de su administrador
+     * (incluido el desglose {@code canchas:}) y los de la propia cancha.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCanchaCambiada(CanchaCambiadaEvent event) {
+        invalidar(Set.of(event.getAdministradorCanchaId()), Set.of(event.getCanchaId()));
+    }
+
+    public synchronized void invalidarTodo() {
+        generacionGlobal.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void invalidar(List<ReservaCambiadaEvent> cambios) {
+        Set<Long> administradores = new HashSet<>();
+        Set<Long> canchas = new HashSet<>();
+        for (ReservaCambiadaEvent cambio : cambios) {
+            administradores.add(cambio.getAdministradorCanchaId());
+            canchas.add(cambio.getCanchaId());
+        }
+        invalidar(administradores, canchas);
+    }
+
+    private synchronized void invalidar(Set<Long> administradores, Set<Long> canchas) {
+        administradores.forEach(id -> generacion(new Ambito(Alcance.ADMINISTRADOR, id)).incrementAndGet());
+        canchas.forEach(id -> generacion(new Ambito(Alcance.CANCHA, id)).incrementAndGet());
+        cache.asMap().keySet().removeIf(clave -> clave.alcance() == Alcance.ADMINISTRADOR
+                ? administradores.contains(clave.id())
+                : canchas.contains(clave.id()));
+    }
+
+    private AtomicLong generacion(Ambito ambito) {
+        return generaciones.computeIfAbsent(ambito, a -> new AtomicLong());
+    }
+}
@@ -0,0 +1,363 @@
+package com.playmatch.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playmatch.service.dto.OcupacionCanchaResponse;
+import com.playmatch.service.dto.ReporteJobRequest;
+import com.playmatch.service.dto.ReporteJobResponse;
+import com.playmatch.service.dto.TotalAgrupadoResponse;
+import com.playmatch.service.entity.AdministradorCancha;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.entity.ReporteJob;
+import com.playmatch.service.exception.BadRequestException;
+import com.playmatch.service.exception.NotFoundException;
+import com.playmatch.service.repository.CanchaRepository;
+import com.playmatch.service.repository.ReporteJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Corre los reportes pesados fuera del hilo HTTP. Cada trabajo se guarda en {@code reporte_jobs}, se ejecuta
+ * en un hilo virtual propio y solo {@code concurrencia} trabajos calculan a la vez; el resto espera su turno
+ * sin ocupar un worker de Tomcat ni una conexion. El calculo se hace por tramos (de fechas para los agrupados,
+ * por cancha para la ocupacion) y el avance se guarda al terminar cada uno.
+ * <p>
+ * Como mucho {@code max-encolados} trabajos esperan o corren a la vez; pasado ese limite se rechazan los nuevos.
+ * <p>
+ * Cada trabajo sin terminar pertenece a la instancia que lo encolo, que renueva su latido cada {@code latido}.
+ * Cuando un trabajo pasa {@code abandonado-tras} sin latido, su instancia se detuvo o dejo de responder: cualquier
+ * otra lo reclama con un UPDATE condicionado, que solo gana una, y lo recalcula desde cero. Los trabajos que
+ * siguen corriendo en otras instancias vivas no se tocan, y la que perdio un trabajo ya no puede escribirlo.
+ */
+@Service
+public class ReporteJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReporteJobService.class);
+    private static final int MAX_LARGO_ERROR = 500;
+
+    private final ReporteJobRepository reporteJobRepository;
+    private final CanchaRepository canchaRepository;
+    private final ReporteService reporteService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int diasPorTramo;
+    private final Semaphore turnos;
+    private final int maxEncolados;
+    private final Duration latido;
+    private final Duration abandonadoTras;
+    // Identifica a esta instancia como duenia de los trabajos que encola
+    private final String instancia = UUID.randomUUID().toString();
+    // Trabajos esperando turno o calculando en esta instancia
+    private final AtomicInteger encolados = new AtomicInteger();
+    private final ExecutorService executor;
+    private ScheduledExecutorService latidos;
+
+    public ReporteJobService(ReporteJobRepository reporteJobRepository,
+                             CanchaRepository canchaRepository,
+                             ReporteService reporteService,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${playmatch.reportes.jobs.concurrencia:2}") int concurrencia,
+                             @Value("${playmatch.reportes.jobs.dias-por-tramo:90}") int diasPorTramo,
+                             @Value("${playmatch.reportes.jobs.max-encolados:50}") int maxEncolados,
+                             @Value("${playmatch.reportes.jobs.latido:PT15S}") Duration latido,
+                             @Value("${playmatch.reportes.jobs.abandonado-tras:PT1M}") Duration abandonadoTras) {
+        if (abandonadoTras.compareTo(latido.multipliedBy(2)) < 0) {
+            throw new IllegalStateException("playmatch.reportes.jobs.abandonado-tras debe ser al menos el doble del latido");
+        }
+        this.reporteJobRepository = reporteJobRepository;
+        this.canchaRepository = canchaRepository;
+        this.reporteService = reporteService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.diasPorTramo = diasPorTramo;
+        this.turnos = new Semaphore(concurrencia, true);
+        this.maxEncolados = maxEncolados;
+        this.latido = latido;
+        this.abandonadoTras = abandonadoTras;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("reporte-job-", 0).factory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        latidos = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "reporte-job-latido");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // La primera vuelta toma al arrancar los trabajos que ya estaban abandonados
+        latidos.scheduleWithFixedDelay(this::latirYReanudar, 0, latido.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (latidos != null) {
+            latidos.shutdownNow();
+        }
+        executor.shutdownNow();
+    }
+
+    private void latirYReanudar() {
+        try {
+            LocalDateTime ahora = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> reporteJobRepository.latir(instancia, ahora));
+            reanudarAbandonados(ahora);
+        } catch (RuntimeException e) {
+            // Si el latido falla varias veces seguidas otra instancia tomara los trabajos; se reintenta en la proxima vuelta
+            log.error("Error al renovar o reanudar trabajos de reporte", e);
+        }
+    }
+
+    /**
+     * Reclama los trabajos sin latido reciente y los recalcula desde cero, sin pasar de {@code max-encolados}.
+     * Lo que no entra queda para la proxima vuelta o para otra instancia.
+     */
+    private void reanudarAbandonados(LocalDateTime ahora) {
+        LocalDateTime limite = ahora.minus(abandonadoTras);
+        int reanudados = 0;
+        for (Long id : reporteJobRepository.findIdsAbandonados(limite)) {
+            if (encolados.incrementAndGet() > maxEncolados) {
+                encolados.decrementAndGet();
+                break;
+            }
+            Integer reclamados = transactionTemplate.execute(status -> reporteJobRepository.reclamar(id, instancia, ahora, limite));
+            if (reclamados != null && reclamados > 0) {
+                encolar(id);
+                reanudados++;
+            } else {
+                encolados.decrementAndGet();
+            }
+        }
+        if (reanudados > 0) {
+            log.info("Reencolados {} trabajos de reporte abandonados", reanudados);
+        }
+    }
+
+    /**
+     * Valida el pedido con las mismas reglas que los endpoints sincronicos, guarda el trabajo y lo encola.
+     */
+    public ReporteJobResponse crear(ReporteJobRequest request) {
+        AdministradorCancha administrador = reporteService.getAdministradorAutenticado();
+        ReporteJob.TipoReporte tipo = parsearTipo(request.getTipo());
+        LocalDate hasta = request.getFechaHasta() != null ? request.getFechaHasta() : LocalDate.now();
+        LocalDate desde = request.getFechaDesde() != null ? request.getFechaDesde() : hasta.minusYears(1);
+        reporteService.validarRango(desde, hasta);
+        if (request.getCanchaId() != null) {
+            reporteService.verificarCancha(administrador.getId(), request.getCanchaId());
+        }
+
+        ReporteJob job = new ReporteJob();
+        job.setAdministradorCanchaId(administrador.getId());
+        job.setTipo(tipo);
+        if (tipo == ReporteJob.TipoReporte.AGRUPADO) {
+            job.setAgrupacion(reporteService.parsearAgrupacion(request.getAgrupacion()).name());
+        } else {
+            reporteService.validarMinutosPorCelda(request.getMinutosPorCelda());
+            job.setMinutosPorCelda(request.getMinutosPorCelda());
+        }
+        job.setCanchaId(request.getCanchaId());
+        job.setFechaDesde(desde);
+        job.setFechaHasta(hasta);
+        job.setEstado(ReporteJob.EstadoJob.PENDIENTE);
+        job.setCreadoEn(LocalDateTime.now());
+        job.setInstancia(instancia);
+        job.setLatidoEn(job.getCreadoEn());
+
+        if (encolados.incrementAndGet() > maxEncolados) {
+            encolados.decrementAndGet();
+            throw new BadRequestException("Hay demasiados reportes en cola. Intenta de nuevo en unos minutos");
+        }
+        ReporteJob guardado;
+        try {
+            guardado = reporteJobRepository.save(job);
+        } catch (RuntimeException e) {
+            encolados.decrementAndGet();
+            throw e;
+        }
+        encolar(guardado.getId());
+        return mapToResponse(guardado);
+    }
+
+    public ReporteJobResponse obtener(Long id) {
+        AdministradorCancha administrador = reporteService.getAdministradorAutenticado();
+        ReporteJob job = reporteJobRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Trabajo de reporte no encontrado"));
+        if (!job.getAdministradorCanchaId().equals(administrador.getId())) {
+            throw new AccessDeniedException("No puedes consultar reportes de otro administrador");
+        }
+        return mapToResponse(job);
+    }
+
+    private void encolar(Long jobId) {
+        executor.execute(() -> {
+            try {
+                ejecutar(jobId);
+            } finally {
+                encolados.decrementAndGet();
+            }
+        });
+    }
+
+    private void ejecutar(Long jobId) {
+        try {
+            turnos.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        ReporteJob job = null;
+        try {
+            Integer iniciados = transactionTemplate.execute(status -> reporteJobRepository.iniciar(jobId, instancia));
+            if (iniciados == null || iniciados == 0) {
+                return; // Lo reclamo otra instancia mientras esperaba turno
+            }
+            job = reporteJobRepository.findById(jobId).orElseThrow();
+
+            Object resultado = job.getTipo() == ReporteJob.TipoReporte.AGRUPADO ? calcularAgrupado(job) : calcularOcupacion(job);
+            job.setResultado(objectMapper.writeValueAsString(resultado));
+            job.setEstado(ReporteJob.EstadoJob.COMPLETADO);
+            job.setProgreso(100);
+        } catch (TrabajoReclamadoException e) {
+            log.warn("El trabajo de reporte {} lo retomo otra instancia; se deja de calcular aca", jobId);
+            job = null;
+        } catch (Exception e) {
+            log.error("Error al calcular el trabajo de reporte {}", jobId, e);
+            if (job != null) {
+                String mensaje = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                job.setEstado(ReporteJob.EstadoJob.FALLIDO);
+                job.setError(mensaje.length() > MAX_LARGO_ERROR ? mensaje.substring(0, MAX_LARGO_ERROR) : mensaje);
+            }
+        } finally {
+            turnos.release();
+        }
+        if (job != null) {
+            ReporteJob terminado = job;
+            terminado.setFinalizadoEn(LocalDateTime.now());
+            Integer guardados = transactionTemplate.execute(status -> reporteJobRepository.finalizar(terminado.getId(),
+                    instancia, terminado.getEstado(), terminado.getProgreso(), terminado.getResultado(),
+                    terminado.getError(), terminado.getFinalizadoEn()));
+            if (guardados == null || guardados == 0) {
+                log.warn("El trabajo de reporte {} lo retomo otra instancia; se descarta el resultado calculado aca", jobId);
+            }
+        }
+    }
+
+    /**
+     * Los totales de cada tramo de fechas se suman por grupo; el recaudado se acumula en centavos
+     * para que la suma de tramos de exactamente lo mismo que el reporte de una sola vez.
+     */
+    private List<TotalAgrupadoResponse> calcularAgrupado(ReporteJob job) {
+        ReservaColumnStore.Agrupacion tipo = ReservaColumnStore.Agrupacion.valueOf(job.getAgrupacion());
+        long dias = ChronoUnit.DAYS.between(job.getFechaDesde(), job.getFechaHasta()) + 1;
+        long tramos = Math.ceilDiv(dias, diasPorTramo);
+
+        Map<String, long[]> acumulados = new TreeMap<>();
+        int tramo = 0;
+        for (LocalDate desde = job.getFechaDesde(); !desde.isAfter(job.getFechaHasta()); desde = desde.plusDays(diasPorTramo)) {
+            LocalDate hasta = desde.plusDays(diasPorTramo - 1L);
+            if (hasta.isAfter(job.getFechaHasta())) {
+                hasta = job.getFechaHasta();
+            }
+            for (TotalAgrupadoResponse fila : reporteService.calcularAgrupado(job.getAdministradorCanchaId(), tipo,
+                    job.getCanchaId(), desde, hasta)) {
+                long[] total = acumulados.computeIfAbsent(fila.getGrupo(), grupo -> new long[3]);
+                total[0] += fila.getTotalReservas();
+                total[1] += fila.getTotalConfirmadas();
+                total[2] += Math.round(fila.getRecaudacion() * 100);
+            }
+            avanzar(job, (int) (++tramo * 100 / tramos));
+        }
+
+        List<TotalAgrupadoResponse> filas = new ArrayList<>(acumulados.size());
+        acumulados.forEach((grupo, total) -> filas.add(new TotalAgrupadoResponse(grupo, total[0], total[1], total[2] / 100.0)));
+        return filas;
+    }
+
+    private List<OcupacionCanchaResponse> calcularOcupacion(ReporteJob job) {
+        List<Long> canchaIds = job.getCanchaId() != null
+                ? List.of(job.getCanchaId())
+                : canchaRepository.findByAdministradorCanchaId(job.getAdministradorCanchaId()).stream()
+                        .sorted(Comparator.comparing(Cancha::getNombre))
+                        .map(Cancha::getId)
+                        .toList();
+
+        List<OcupacionCanchaResponse> respuesta = new ArrayList<>(canchaIds.size());
+        for (int i = 0; i < canchaIds.size(); i++) {
+            respuesta.addAll(reporteService.calcularOcupacion(job.getAdministradorCanchaId(), canchaIds.get(i),
+                    job.getFechaDesde(), job.getFechaHasta(), job.getMinutosPorCelda()));
+            avanzar(job, (i + 1) * 100 / canchaIds.size());
+        }
+        return respuesta;
+    }
+
+    private void avanzar(ReporteJob job, int progreso) {
+        // El 100 se guarda junto con el resultado
+        if (progreso > job.getProgreso() && progreso < 100) {
+            job.setProgreso(progreso);
+            Integer actualizados = transactionTemplate.execute(status ->
+                    reporteJobRepository.actualizarProgreso(job.getId(), instancia, progreso));
+            if (actualizados == null || actualizados == 0) {
+                throw new TrabajoReclamadoException();
+            }
+        }
+    }
+
+    private ReporteJob.TipoReporte parsearTipo(String tipo) {
+        for (ReporteJob.TipoReporte valor : ReporteJob.TipoReporte.values()) {
+            if (valor.name().equalsIgnoreCase(tipo)) {
+                return valor;
+            }
+        }
+        throw new BadRequestException("Tipo de reporte invalido. Valores permitidos: agrupado, ocupacion");
+    }
+
+    private ReporteJobResponse mapToResponse(ReporteJob job) {
+        return new ReporteJobResponse(
+                job.getId(),
+                job.getTipo().name(),
+                job.getAgrupacion(),
+                job.getCanchaId(),
+                job.getFechaDesde(),
+                job.getFechaHasta(),
+                job.getEstado().name(),
+                job.getProgreso(),
+                job.getError(),
+                job.getCreadoEn(),
+                job.getFinalizadoEn(),
+                job.getResultado()
+        );
+    }
+
+    /**
+     * El trabajo dejo de ser de esta instancia mientras se calculaba: no tiene sentido seguir.
+     */
+    private static class TrabajoReclamadoException extends RuntimeException {
+        TrabajoReclamadoException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.ReporteReservasResponse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Totales de reservas de una o varias canchas: cantidad y recaudado por dia. Se suma en centavos,
+ * asi {@link #combinar} es asociativo y conmutativo y el reporte de un administrador es el mismo
+ * sin importar en que orden se combinen los parciales de sus canchas.
+ */
+final class ReporteParcial {
+
+    // Por fecha: {cantidad, recaudado en centavos}
+    private final TreeMap<LocalDate, long[]> dias = new TreeMap<>();
+    private long cantidad;
+    private long recaudadoCentavos;
+
+    void sumarDia(LocalDate fecha, long cantidad, double recaudado) {
+        long centavos = Math.round(recaudado * 100);
+        long[] dia = dias.computeIfAbsent(fecha, f -> new long[2]);
+        dia[0] += cantidad;
+        dia[1] += centavos;
+        this.cantidad += cantidad;
+        this.recaudadoCentavos += centavos;
+    }
+
+    /**
+     * Nuevo parcial con la suma de este y el otro; ninguno de los dos se modifica.
+     */
+    ReporteParcial combinar(ReporteParcial otro) {
+        ReporteParcial suma = new ReporteParcial();
+        for (ReporteParcial parcial : List.of(this, otro)) {
+            for (Map.Entry<LocalDate, long[]> dia : parcial.dias.entrySet()) {
+                long[] total = suma.dias.computeIfAbsent(dia.getKey(), f -> new long[2]);
+                total[0] += dia.getValue()[0];
+                total[1] += dia.getValue()[1];
+            }
+            suma.cantidad += parcial.cantidad;
+            suma.recaudadoCentavos += parcial.recaudadoCentavos;
+        }
+        return suma;
+    }
+
+    long getCantidad() {
+        return cantidad;
+    }
+
+    double getRecaudacion() {
+        return recaudadoCentavos / 100.0;
+    }
+
+    /**
+     * Una fila por fecha con reservas, en orden cronologico.
+     */
+    List<ReporteReservasResponse> porDia() {
+        List<ReporteReservasResponse> filas = new ArrayList<>(dias.size());
+        dias.forEach((fecha, total) -> filas.add(new ReporteReservasResponse(fecha, null, null, total[0], total[1] / 100.0)));
+        return List.copyOf(filas);
+    }
+}
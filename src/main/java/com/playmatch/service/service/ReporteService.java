@@ -1,18 +1,33 @@
 package com.playmatch.service.service;
 
+import com.playmatch.service.dto.OcupacionCanchaResponse;
+import com.playmatch.service.dto.ReporteCanchaResponse;
 import com.playmatch.service.dto.ReporteReservasResponse;
+import com.playmatch.service.dto.TotalAgrupadoResponse;
 import com.playmatch.service.entity.AdministradorCancha;
 import com.playmatch.service.entity.Cancha;
-import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.entity.Role;
+import com.playmatch.service.exception.BadRequestException;
 import com.playmatch.service.exception.NotFoundException;
 import com.playmatch.service.repository.AdministradorCanchaRepository;
 import com.playmatch.service.repository.CanchaRepository;
+import com.playmatch.service.repository.ReservaRepository;
+import com.playmatch.service.repository.ReservaRollupDiariaRepository;
+import com.playmatch.service.security.UserPrincipal;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,144 +35,315 @@ import java.util.stream.Collectors;
 @Service
 public class ReporteService {
 
+    private static final int MAX_DIAS_AGRUPADO = 3660;
+
     private final AdministradorCanchaRepository administradorCanchaRepository;
     private final CanchaRepository canchaRepository;
+    private final ReservaRepository reservaRepository;
+    private final ReservaRollupDiariaRepository rollupRepository;
+    private final ReporteCache reporteCache;
+    private final ReservaColumnStore reservaColumnStore;
+    private final HorarioCanchaCache horarioCanchaCache;
+    private final TransactionTemplate transactionTemplate;
 
-    public ReporteService(AdministradorCanchaRepository administradorCanchaRepository, CanchaRepository canchaRepository) {
+    public ReporteService(AdministradorCanchaRepository administradorCanchaRepository, CanchaRepository canchaRepository,
+                          ReservaRepository reservaRepository, ReservaRollupDiariaRepository rollupRepository,
+                          ReporteCache reporteCache, ReservaColumnStore reservaColumnStore,
+                          HorarioCanchaCache horarioCanchaCache, PlatformTransactionManager transactionManager) {
         this.administradorCanchaRepository = administradorCanchaRepository;
         this.canchaRepository = canchaRepository;
+        this.reservaRepository = reservaRepository;
+        this.rollupRepository = rollupRepository;
+        this.reporteCache = reporteCache;
+        this.reservaColumnStore = reservaColumnStore;
+        this.horarioCanchaCache = horarioCanchaCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
     }
 
-    @Transactional(readOnly = true)
     public List<ReporteReservasResponse> reporteReservas(Long administradorCanchaId, String periodo) {
-        AdministradorCancha administradorCancha = administradorCanchaRepository.findById(administradorCanchaId)
-                .orElseThrow(() -> new NotFoundException("Administrador de cancha no encontrado"));
+        ReporteCache.Clave clave = new ReporteCache.Clave(ReporteCache.Alcance.ADMINISTRADOR, administradorCanchaId, periodo.toLowerCase());
+        return reporteCache.obtener(clave, () -> transactionTemplate.execute(status -> calcularReporte(administradorCanchaId, periodo)));
+    }
 
-        LocalDateTime ahora = LocalDateTime.now();
+    public List<ReporteReservasResponse> reporteReservasPorCancha(Long canchaId, String periodo) {
+        ReporteCache.Clave clave = new ReporteCache.Clave(ReporteCache.Alcance.CANCHA, canchaId, periodo.toLowerCase());
+        return reporteCache.obtener(clave, () -> transactionTemplate.execute(status -> calcularReportePorCancha(canchaId, periodo)));
+    }
 
-        // Para el período "día", agrupar por hora mostrando todas las reservas del día actual
-        if ("dia".equalsIgnoreCase(periodo)) {
-            LocalDate hoy = LocalDate.now();
-            
-            return administradorCancha.getCanchas().stream()
-                    .flatMap(cancha -> cancha.getReservas().stream())
-                    .filter(reserva -> reserva.getInicio().toLocalDate().equals(hoy))
-                    .map(reserva -> {
-                        // Solo contar recaudación si está confirmada Y ya finalizó
-                        double monto = esReservaRecaudada(reserva, ahora) ? 
-                                (reserva.getMonto() != null ? reserva.getMonto() : 0.0) : 0.0;
-                        return new ReporteReservasResponse(
-                                reserva.getInicio().toLocalDate(),
-                                reserva.getInicio().toLocalTime(),
-                                reserva.getFin().toLocalTime(),
-                                1,
-                                monto
-                        );
-                    })
-                    .sorted((a, b) -> {
-                        int fechaCompare = a.getFecha().compareTo(b.getFecha());
-                        if (fechaCompare != 0) return fechaCompare;
-                        return a.getHoraInicio().compareTo(b.getHoraInicio());
-                    })
-                    .collect(Collectors.toList());
+    /**
+     * Totales del periodo de cada cancha del administrador autenticado, con su detalle por fecha.
+     * Son los mismos parciales que se combinan para el reporte del administrador.
+     */
+    public List<ReporteCanchaResponse> reporteReservasPorCanchas(String periodo) {
+        Long administradorId = getAdministradorAutenticado().getId();
+        ReporteCache.Clave clave = new ReporteCache.Clave(ReporteCache.Alcance.ADMINISTRADOR, administradorId,
+                "canchas:" + periodo.toLowerCase());
+        return reporteCache.obtener(clave, () -> transactionTemplate.execute(status -> calcularReportePorCanchas(administradorId, periodo)));
+    }
+
+    /**
+     * Totales del administrador autenticado agrupados por dia, hora de inicio o cancha, sobre un rango
+     * arbitrario (por defecto el ultimo año) y opcionalmente de una sola cancha. Se calculan sobre el
+     * almacen columnar en memoria.
+     */
+    public List<TotalAgrupadoResponse> reporteAgrupado(String agrupacion, Long canchaId, LocalDate fechaDesde, LocalDate fechaHasta) {
+        ReservaColumnStore.Agrupacion tipo = parsearAgrupacion(agrupacion);
+        LocalDate hasta = fechaHasta != null ? fechaHasta : LocalDate.now();
+        LocalDate desde = fechaDesde != null ? fechaDesde : hasta.minusYears(1);
+        validarRango(desde, hasta);
+        return calcularAgrupado(getAdministradorAutenticado().getId(), tipo, canchaId, desde, hasta);
+    }
+
+    /**
+     * Mapa de calor dia de la semana por franja horaria de cada cancha del administrador autenticado
+     * (o solo de la indicada): porcentaje del horario habilitado que estuvo reservado y recaudacion.
+     */
+    public List<OcupacionCanchaResponse> ocupacion(Long canchaId, LocalDate fechaDesde, LocalDate fechaHasta, int minutosPorCelda) {
+        validarMinutosPorCelda(minutosPorCelda);
+        LocalDate hasta = fechaHasta != null ? fechaHasta : LocalDate.now();
+        LocalDate desde = fechaDesde != null ? fechaDesde : hasta.minusYears(1);
+        validarRango(desde, hasta);
+        return calcularOcupacion(getAdministradorAutenticado().getId(), canchaId, desde, hasta, minutosPorCelda);
+    }
+
+    /**
+     * Calculo del reporte agrupado para un administrador ya resuelto; no usa el contexto de seguridad,
+     * por lo que sirve tambien para los trabajos que corren fuera del hilo HTTP.
+     */
+    public List<TotalAgrupadoResponse> calcularAgrupado(Long administradorId, ReservaColumnStore.Agrupacion tipo, Long canchaId,
+                                                        LocalDate desde, LocalDate hasta) {
+        if (canchaId != null) {
+            verificarCancha(administradorId, canchaId);
         }
+        ColumnasReservas.Totales totales = reservaColumnStore.totalizar(administradorId, tipo, canchaId, desde, hasta, LocalDateTime.now());
+        Map<Long, String> nombresCancha = tipo == ReservaColumnStore.Agrupacion.CANCHA
+                ? canchaRepository.findByAdministradorCanchaId(administradorId).stream()
+                        .collect(Collectors.toMap(Cancha::getId, Cancha::getNombre))
+                : Map.of();
 
-        LocalDate fechaInicio = calcularFechaInicio(periodo);
-        
-        Map<LocalDate, List<Reserva>> reservasPorDia = administradorCancha.getCanchas().stream()
-                .flatMap(cancha -> cancha.getReservas().stream())
-                .filter(reserva -> !reserva.getInicio().toLocalDate().isBefore(fechaInicio))
-                .collect(Collectors.groupingBy(reserva -> reserva.getInicio().toLocalDate()));
-
-        return reservasPorDia.entrySet().stream()
-                .map(entry -> {
-                    // Solo contar recaudación de reservas confirmadas que ya finalizaron
-                    double totalRecaudado = entry.getValue().stream()
-                            .filter(r -> esReservaRecaudada(r, ahora))
-                            .mapToDouble(r -> r.getMonto() != null ? r.getMonto() : 0.0)
-                            .sum();
-                    
-                    return new ReporteReservasResponse(
-                            entry.getKey(),
-                            null,
-                            null,
-                            entry.getValue().size(),
-                            totalRecaudado
-                    );
-                })
-                .sorted((a, b) -> a.getFecha().compareTo(b.getFecha()))
-                .collect(Collectors.toList());
+        List<TotalAgrupadoResponse> filas = new ArrayList<>();
+        for (int i = 0; i < totales.claves.length; i++) {
+            if (totales.reservas[i] == 0) {
+                continue;
+            }
+            long clave = totales.claves[i];
+            String grupo = switch (tipo) {
+                case DIA -> LocalDate.ofEpochDay(clave).toString();
+                case HORA -> String.format("%02d:00", clave);
+                case CANCHA -> nombresCancha.getOrDefault(clave, String.valueOf(clave));
+            };
+            filas.add(new TotalAgrupadoResponse(grupo, totales.reservas[i], totales.confirmadas[i],
+                    totales.recaudadoCentavos[i] / 100.0));
+        }
+        if (tipo == ReservaColumnStore.Agrupacion.CANCHA) {
+            filas.sort(Comparator.comparing(TotalAgrupadoResponse::getGrupo));
+        }
+        return filas;
     }
 
-    @Transactional(readOnly = true)
-    public List<ReporteReservasResponse> reporteReservasPorCancha(Long canchaId, String periodo) {
+    /**
+     * Calculo del mapa de calor para un administrador ya resuelto, sin pasar por el contexto de seguridad.
+     */
+    public List<OcupacionCanchaResponse> calcularOcupacion(Long administradorId, Long canchaId, LocalDate desde, LocalDate hasta,
+                                                           int minutosPorCelda) {
+        // Horario de cada cancha compilado dentro de la transaccion, para recorrer sus intervalos
+        Map<Cancha, HorarioCompilado> horarios = transactionTemplate.execute(status -> {
+            List<Cancha> canchas = canchaId != null
+                    ? List.of(verificarCancha(administradorId, canchaId))
+                    : canchaRepository.findByAdministradorCanchaId(administradorId);
+            Map<Cancha, HorarioCompilado> compilados = new LinkedHashMap<>();
+            canchas.stream().sorted(Comparator.comparing(Cancha::getNombre))
+                    .forEach(cancha -> compilados.put(cancha, horarioCanchaCache.obtener(cancha)));
+            return compilados;
+        });
+
+        int[] diasPorSemana = new int[7];
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            diasPorSemana[dia.getDayOfWeek().getValue() - 1]++;
+        }
+        Map<Long, ColumnasReservas.Ocupacion> ocupaciones = reservaColumnStore.ocupacion(
+                administradorId, canchaId, desde, hasta, LocalDateTime.now(), minutosPorCelda);
+
+        int celdasPorDia = ColumnasReservas.MINUTOS_DIA / minutosPorCelda;
+        List<OcupacionCanchaResponse> respuesta = new ArrayList<>();
+        horarios.forEach((cancha, horario) -> {
+            ColumnasReservas.Ocupacion ocupacion = ocupaciones.get(cancha.getId());
+            double[][] porcentajes = new double[7][celdasPorDia];
+            double[][] recaudacion = new double[7][celdasPorDia];
+            // Sin ocupacion la cancha no tiene reservas en el almacen y la matriz queda en cero
+            for (int celda = 0; ocupacion != null && celda < celdasPorDia; celda++) {
+                int habilitados = horario.minutosHabilitados(celda * minutosPorCelda, (celda + 1) * minutosPorCelda);
+                for (int dia = 0; dia < 7; dia++) {
+                    long capacidad = (long) habilitados * diasPorSemana[dia];
+                    long ocupados = ocupacion.minutos[dia * celdasPorDia + celda];
+                    porcentajes[dia][celda] = capacidad > 0 ? Math.round(ocupados * 10000.0 / capacidad) / 100.0 : 0.0;
+                    recaudacion[dia][celda] = ocupacion.recaudadoCentavos[dia * celdasPorDia + celda] / 100.0;
+                }
+            }
+            respuesta.add(new OcupacionCanchaResponse(cancha.getId(), cancha.getNombre(), desde, hasta,
+                    minutosPorCelda, porcentajes, recaudacion));
+        });
+        return respuesta;
+    }
+
+    ReservaColumnStore.Agrupacion parsearAgrupacion(String agrupacion) {
+        for (ReservaColumnStore.Agrupacion tipo : ReservaColumnStore.Agrupacion.values()) {
+            if (tipo.name().equalsIgnoreCase(agrupacion)) {
+                return tipo;
+            }
+        }
+        throw new BadRequestException("Agrupacion invalida. Valores permitidos: dia, hora, cancha");
+    }
+
+    void validarRango(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("La fecha hasta debe ser posterior o igual a la fecha desde");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_DIAS_AGRUPADO) {
+            throw new BadRequestException("El rango del reporte no puede superar los " + MAX_DIAS_AGRUPADO + " dias");
+        }
+    }
+
+    void validarMinutosPorCelda(int minutosPorCelda) {
+        if (minutosPorCelda != 15 && minutosPorCelda != 30 && minutosPorCelda != 60) {
+            throw new BadRequestException("Los minutos por celda deben ser 15, 30 o 60");
+        }
+    }
+
+    Cancha verificarCancha(Long administradorId, Long canchaId) {
         Cancha cancha = canchaRepository.findById(canchaId)
                 .orElseThrow(() -> new NotFoundException("Cancha no encontrada"));
+        if (!cancha.getAdministradorCancha().getId().equals(administradorId)) {
+            throw new AccessDeniedException("No puedes consultar canchas que pertenecen a otro administrador");
+        }
+        return cancha;
+    }
+
+    AdministradorCancha getAdministradorAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new AccessDeniedException("Usuario no autenticado");
+        }
+        if (principal.getRole() != Role.ADMINISTRADOR_CANCHA) {
+            throw new AccessDeniedException("Solo los administradores de cancha pueden consultar estos reportes");
+        }
+        return administradorCanchaRepository.findByUsuarioId(principal.getUsuarioId())
+                .orElseThrow(() -> new NotFoundException("No se encontró un administrador asociado al usuario"));
+    }
+
+    private ReporteCache.Resultado calcularReporte(Long administradorCanchaId, String periodo) {
+        if (!administradorCanchaRepository.existsById(administradorCanchaId)) {
+            throw new NotFoundException("Administrador de cancha no encontrado");
+        }
 
         LocalDateTime ahora = LocalDateTime.now();
+        LocalDate fechaInicio = calcularFechaInicio(periodo);
+        LocalDateTime validoHasta = validoHasta(ahora,
+                reservaRepository.findProximoFinConfirmadoDelAdministrador(administradorCanchaId, fechaInicio.atStartOfDay(), ahora));
 
-        // Para el período "día", agrupar por hora mostrando todas las reservas del día actual
+        // Para el período "día", una fila por cada reserva del día actual
         if ("dia".equalsIgnoreCase(periodo)) {
-            LocalDate hoy = LocalDate.now();
-            
-            return cancha.getReservas().stream()
-                    .filter(reserva -> reserva.getInicio().toLocalDate().equals(hoy))
-                    .map(reserva -> {
-                        // Solo contar recaudación si está confirmada Y ya finalizó
-                        double monto = esReservaRecaudada(reserva, ahora) ? 
-                                (reserva.getMonto() != null ? reserva.getMonto() : 0.0) : 0.0;
-                        return new ReporteReservasResponse(
-                                reserva.getInicio().toLocalDate(),
-                                reserva.getInicio().toLocalTime(),
-                                reserva.getFin().toLocalTime(),
-                                1,
-                                monto
-                        );
-                    })
-                    .sorted((a, b) -> {
-                        int fechaCompare = a.getFecha().compareTo(b.getFecha());
-                        if (fechaCompare != 0) return fechaCompare;
-                        return a.getHoraInicio().compareTo(b.getHoraInicio());
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        // Para semana y mes, agrupar por fecha como antes
+            return new ReporteCache.Resultado(List.copyOf(reservaRepository.findReporteDelAdministrador(administradorCanchaId,
+                    fechaInicio.atStartOfDay(), fechaInicio.plusDays(1).atStartOfDay(), ahora)), validoHasta);
+        }
+
+        // Para semana y mes, el reporte es la combinacion de los parciales de cada cancha
+        ReporteParcial total = parcialesPorCancha(administradorCanchaId, fechaInicio, LocalDate.MAX, ahora).values().stream()
+                .reduce(new ReporteParcial(), ReporteParcial::combinar);
+        return new ReporteCache.Resultado(total.porDia(), validoHasta);
+    }
+
+    private ReporteCache.Resultado calcularReportePorCanchas(Long administradorId, String periodo) {
+        LocalDateTime ahora = LocalDateTime.now();
         LocalDate fechaInicio = calcularFechaInicio(periodo);
+        LocalDateTime validoHasta = validoHasta(ahora,
+                reservaRepository.findProximoFinConfirmadoDelAdministrador(administradorId, fechaInicio.atStartOfDay(), ahora));
 
-        Map<LocalDate, List<Reserva>> reservasPorDia = cancha.getReservas().stream()
-                .filter(reserva -> !reserva.getInicio().toLocalDate().isBefore(fechaInicio))
-                .collect(Collectors.groupingBy(reserva -> reserva.getInicio().toLocalDate()));
-
-        return reservasPorDia.entrySet().stream()
-                .map(entry -> {
-                    // Solo contar recaudación de reservas confirmadas que ya finalizaron
-                    double totalRecaudado = entry.getValue().stream()
-                            .filter(r -> esReservaRecaudada(r, ahora))
-                            .mapToDouble(r -> r.getMonto() != null ? r.getMonto() : 0.0)
-                            .sum();
-                    
-                    return new ReporteReservasResponse(
-                            entry.getKey(),
-                            null,
-                            null,
-                            entry.getValue().size(),
-                            totalRecaudado
-                    );
+        // Igual que el reporte del administrador, el periodo "dia" se limita al dia actual
+        LocalDate fechaFin = "dia".equalsIgnoreCase(periodo) ? fechaInicio : LocalDate.MAX;
+        Map<Long, ReporteParcial> parciales = parcialesPorCancha(administradorId, fechaInicio, fechaFin, ahora);
+        List<ReporteCanchaResponse> respuesta = canchaRepository.findByAdministradorCanchaId(administradorId).stream()
+                .sorted(Comparator.comparing(Cancha::getNombre))
+                .map(cancha -> {
+                    ReporteParcial parcial = parciales.getOrDefault(cancha.getId(), new ReporteParcial());
+                    return new ReporteCanchaResponse(cancha.getId(), cancha.getNombre(), parcial.getCantidad(),
+                            parcial.getRecaudacion(), parcial.porDia());
                 })
-                .sorted((a, b) -> a.getFecha().compareTo(b.getFecha()))
-                .collect(Collectors.toList());
+                .toList();
+        return new ReporteCache.Resultado(respuesta, validoHasta);
     }
 
     /**
-     * Verifica si una reserva debe contarse como recaudación.
-     * Requisitos:
-     * 1. Estado CONFIRMADA
-     * 2. Fecha/hora de fin ya pasó (partido finalizado y pagado)
+     * Un parcial por cancha del administrador con reservas entre las fechas dadas (inclusive), armado con
+     * una sola consulta agrupada al rollup y otra a los montos todavia no cobrados.
      */
-    private boolean esReservaRecaudada(Reserva reserva, LocalDateTime ahora) {
-        return reserva.getEstado() == Reserva.EstadoReserva.CONFIRMADA 
-                && reserva.getFin().isBefore(ahora);
+    private Map<Long, ReporteParcial> parcialesPorCancha(Long administradorId, LocalDate fechaInicio, LocalDate fechaFin,
+                                                         LocalDateTime ahora) {
+        Map<Long, Map<LocalDate, Double>> pendientesDeCobro = new HashMap<>();
+        reservaRepository.findMontosNoCobradosPorCanchaDelAdministrador(administradorId, fechaInicio.atStartOfDay(), ahora)
+                .forEach(m -> pendientesDeCobro.computeIfAbsent(m.getCanchaId(), id -> new HashMap<>())
+                        .put(m.getFecha(), m.getMonto() != null ? m.getMonto() : 0.0));
+
+        Map<Long, ReporteParcial> parciales = new HashMap<>();
+        for (ReservaRollupDiariaRepository.TotalDiarioCancha total
+                : rollupRepository.totalesPorCanchaDelAdministrador(administradorId, fechaInicio)) {
+            if (total.getFecha().isAfter(fechaFin)) {
+                continue;
+            }
+            double pendiente = pendientesDeCobro.getOrDefault(total.getCanchaId(), Map.of()).getOrDefault(total.getFecha(), 0.0);
+            parciales.computeIfAbsent(total.getCanchaId(), id -> new ReporteParcial())
+                    .sumarDia(total.getFecha(), total.getCantidad(), Math.max(0.0, total.getMontoConfirmado() - pendiente));
+        }
+        return parciales;
+    }
+
+    private ReporteCache.Resultado calcularReportePorCancha(Long canchaId, String periodo) {
+        if (!canchaRepository.existsById(canchaId)) {
+            throw new NotFoundException("Cancha no encontrada");
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate fechaInicio = calcularFechaInicio(periodo);
+        LocalDateTime validoHasta = validoHasta(ahora,
+                reservaRepository.findProximoFinConfirmadoDeCancha(canchaId, fechaInicio.atStartOfDay(), ahora));
+
+        // Para el período "día", una fila por cada reserva del día actual
+        if ("dia".equalsIgnoreCase(periodo)) {
+            return new ReporteCache.Resultado(List.copyOf(reservaRepository.findReporteDeCancha(canchaId,
+                    fechaInicio.atStartOfDay(), fechaInicio.plusDays(1).atStartOfDay(), ahora)), validoHasta);
+        }
+
+        // Para semana y mes, los totales por fecha salen del rollup diario
+        return new ReporteCache.Resultado(desdeRollup(
+                rollupRepository.totalesDeCancha(canchaId, fechaInicio),
+                reservaRepository.findMontosNoCobradosDeCancha(canchaId, fechaInicio.atStartOfDay(), ahora)).porDia(),
+                validoHasta);
+    }
+
+    /**
+     * El reporte cambia cuando termina la proxima reserva confirmada o, a la medianoche, cuando se corre la ventana.
+     */
+    private LocalDateTime validoHasta(LocalDateTime ahora, LocalDateTime proximoFin) {
+        LocalDateTime medianoche = ahora.toLocalDate().plusDays(1).atStartOfDay();
+        return proximoFin != null && proximoFin.isBefore(medianoche) ? proximoFin.plusNanos(1) : medianoche;
+    }
+
+    /**
+     * El rollup suma el monto de todas las confirmadas del dia; a eso se le resta lo de las
+     * confirmadas que todavia no finalizaron, que no cuentan como recaudacion.
+     */
+    private ReporteParcial desdeRollup(List<ReservaRollupDiariaRepository.TotalDiario> totales,
+                                       List<ReservaRepository.MontoDiario> noCobrados) {
+        Map<LocalDate, Double> pendientesDeCobro = new HashMap<>();
+        noCobrados.forEach(m -> pendientesDeCobro.put(m.getFecha(), m.getMonto() != null ? m.getMonto() : 0.0));
+
+        ReporteParcial parcial = new ReporteParcial();
+        for (ReservaRollupDiariaRepository.TotalDiario total : totales) {
+            double recaudado = total.getMontoConfirmado() - pendientesDeCobro.getOrDefault(total.getFecha(), 0.0);
+            parcial.sumarDia(total.getFecha(), total.getCantidad(), Math.max(0.0, recaudado));
+        }
+        return parcial;
     }
 
     private LocalDate calcularFechaInicio(String periodo) {
@@ -0,0 +1,151 @@
+package com.playmatch.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasCambiadasEnLoteEvent;
+import com.playmatch.service.event.ReservasConfirmadasEnLoteEvent;
+import com.playmatch.service.repository.ReservaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Almacen analitico en memoria: las reservas de cada administrador en {@link ColumnasReservas},
+ * para reportes sobre rangos de varios años que recorren arreglos primitivos en lugar de entidades.
+ * Se carga desde la base en el primer uso, se mantiene con los eventos de reserva y se recarga
+ * completo al vencer el TTL, por si otra instancia modifico reservas.
+ * <p>
+ * Guarda como mucho {@code max-administradores} copias y descarta las que pasan {@code inactividad} sin consultarse,
+ * como {@link ReporteCache}; una copia descartada se vuelve a cargar en el proximo uso. Las metricas se publican
+ * como {@code cache.*} con {@code cache=analitica}.
+ */
+@Component
+public class ReservaColumnStore {
+
+    public enum Agrupacion { DIA, HORA, CANCHA }
+
+    private final ReservaRepository reservaRepository;
+    private final Duration ttl;
+    private final Cache<Long, ColumnasReservas> porAdministrador;
+
+    public ReservaColumnStore(ReservaRepository reservaRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${playmatch.reportes.analitica.ttl:PT15M}") Duration ttl,
+                              @Value("${playmatch.reportes.analitica.max-administradores:200}") long maxAdministradores,
+                              @Value("${playmatch.reportes.analitica.inactividad:PT1H}") Duration inactividad) {
+        this.reservaRepository = reservaRepository;
+        this.ttl = ttl;
+        this.porAdministrador = Caffeine.newBuilder()
+                .maximumSize(maxAdministradores)
+                .expireAfterAccess(inactividad)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porAdministrador, "analitica");
+    }
+
+    /**
+     * Totaliza las reservas del administrador que empiezan entre las fechas dadas (inclusive),
+     * de todas sus canchas o solo de la indicada.
+     */
+    ColumnasReservas.Totales totalizar(Long administradorId, Agrupacion agrupacion, Long canchaId, LocalDate desde,
+                                       LocalDate hasta, LocalDateTime ahora) {
+        int desdeDia = (int) desde.toEpochDay();
+        int hastaDia = (int) hasta.toEpochDay();
+        long ahoraMinuto = minutoEnCurso(ahora);
+        return consultar(administradorId, columnas -> columnas.totalizar(agrupacion, desdeDia, hastaDia, canchaId, ahoraMinuto));
+    }
+
+    /**
+     * Minutos ocupados y recaudado por cancha (todas o solo la indicada), dia de la semana y celda de {@code minutosCelda}.
+     */
+    Map<Long, ColumnasReservas.Ocupacion> ocupacion(Long administradorId, Long canchaId, LocalDate desde, LocalDate hasta,
+                                                    LocalDateTime ahora, int minutosCelda) {
+        int desdeDia = (int) desde.toEpochDay();
+        int hastaDia = (int) hasta.toEpochDay();
+        long ahoraMinuto = minutoEnCurso(ahora);
+        return consultar(administradorId, columnas -> columnas.ocupacion(desdeDia, hastaDia, canchaId, ahoraMinuto, minutosCelda));
+    }
+
+    private <T> T consultar(Long administradorId, Function<ColumnasReservas, T> consulta) {
+        ColumnasReservas columnas = porAdministrador.get(administradorId, id -> new ColumnasReservas());
+        synchronized (columnas) {
+            if (columnas.vencida(ttl)) {
+                cargar(administradorId, columnas);
+            }
+            return consulta.apply(columnas);
+        }
+    }
+
+    /**
+     * Minuto en curso desde la epoca, redondeado hacia arriba: una reserva que termino a las 10:00
+     * ya se cobro a las 10:00:30.
+     */
+    static long minutoEnCurso(LocalDateTime ahora) {
+        return ahora.toLocalDate().toEpochDay() * ColumnasReservas.MINUTOS_DIA
+                + Math.ceilDiv(ahora.toLocalTime().toNanoOfDay(), 60_000_000_000L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        aplicar(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservasCambiadasEnLote(ReservasCambiadasEnLoteEvent event) {
+        event.getCambios().forEach(this::aplicar);
+    }
+
+    /**
+     * Sin el detalle de las reservas confirmadas, la copia del administrador se vuelve a cargar en el proximo uso.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservasConfirmadasEnLote(ReservasConfirmadasEnLoteEvent event) {
+        ColumnasReservas columnas = porAdministrador.policy().getIfPresentQuietly(event.getAdministradorCanchaId());
+        if (columnas == null) {
+            return;
+        }
+        synchronized (columnas) {
+            columnas.cargadaEn = null;
+        }
+    }
+
+    private void aplicar(ReservaCambiadaEvent event) {
+        if (event.getAdministradorCanchaId() == null) {
+            return;
+        }
+        // Sin contar como acceso: una copia que solo recibe eventos igual vence por inactividad
+        ColumnasReservas columnas = porAdministrador.policy().getIfPresentQuietly(event.getAdministradorCanchaId());
+        if (columnas == null) {
+            return; // Se cargara desde la base en el primer uso
+        }
+        synchronized (columnas) {
+            if (columnas.cargadaEn == null) {
+                return;
+            }
+            if (event.getEstadoNuevo() == null) {
+                columnas.quitar(event.getReservaId());
+            } else {
+                columnas.agregar(event.getReservaId(), event.getCanchaId(), event.getInicio(), event.getFin(),
+                        event.getEstadoNuevo(), event.getMonto());
+            }
+        }
+    }
+
+    private void cargar(Long administradorId, ColumnasReservas columnas) {
+        LocalDateTime ahora = LocalDateTime.now();
+        columnas.limpiar();
+        reservaRepository.findFilasAnaliticas(administradorId).forEach(f -> columnas.agregar(
+                f.getId(), f.getCanchaId(), f.getInicio(), f.getFin(), f.getEstado(), f.getMonto()));
+        columnas.marcarOrdenadas();
+        columnas.cargadaEn = ahora;
+    }
+}
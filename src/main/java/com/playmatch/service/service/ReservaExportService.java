@@ -0,0 +1,168 @@
+package com.playmatch.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playmatch.service.dto.ReservaResponse;
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.entity.Role;
+import com.playmatch.service.exception.BadRequestException;
+import com.playmatch.service.exception.NotFoundException;
+import com.playmatch.service.repository.AdministradorCanchaRepository;
+import com.playmatch.service.repository.ReservaRepository;
+import com.playmatch.service.repository.ReservaSpecifications;
+import com.playmatch.service.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Exporta las reservas de un administrador escribiendo fila por fila en la respuesta,
+ * sin armar la lista completa en memoria.
+ */
+@Service
+public class ReservaExportService {
+
+    private static final String ENCABEZADO_CSV = "id,canchaId,cancha,deporte,cliente,estado,fecha,horaInicio,horaFin,monto";
+
+    public enum Formato {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Formato desde(String valor) {
+            for (Formato formato : values()) {
+                if (formato.name().equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new BadRequestException("Formato de exportacion invalido. Valores permitidos: csv, ndjson");
+        }
+    }
+
+    private final ReservaRepository reservaRepository;
+    private final AdministradorCanchaRepository administradorCanchaRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public ReservaExportService(ReservaRepository reservaRepository,
+                                AdministradorCanchaRepository administradorCanchaRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${playmatch.exportacion.fetch-size:1000}") int fetchSize) {
+        this.reservaRepository = reservaRepository;
+        this.administradorCanchaRepository = administradorCanchaRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Valida el usuario en el hilo de la request; la consulta y la escritura corren luego,
+     * cuando Spring MVC invoca el cuerpo en su hilo asincronico.
+     */
+    public StreamingResponseBody exportarReservasDelAdministrador(Formato formato, String estado, LocalDate fechaDesde,
+                                                                  LocalDate fechaHasta, Long canchaId, String cliente) {
+        UserPrincipal principal = getAuthenticatedPrincipal();
+        if (principal.getRole() != Role.ADMINISTRADOR_CANCHA) {
+            throw new AccessDeniedException("Solo los administradores de cancha pueden exportar reservas de sus canchas");
+        }
+        Long administradorId = administradorCanchaRepository.findIdByUsuarioId(principal.getUsuarioId())
+                .orElseThrow(() -> new NotFoundException("No se encontró un administrador asociado al usuario"));
+
+        Specification<Reserva> filtro = Specification.allOf(
+                ReservaSpecifications.delAdministrador(administradorId),
+                ReservaSpecifications.filtros(estado, fechaDesde, fechaHasta, canchaId, cliente));
+
+        return salida -> transactionTemplate.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+            try (Stream<ReservaResponse> filas = reservaRepository.streamOrdenado(filtro, fetchSize)) {
+                if (formato == Formato.CSV) {
+                    writer.write(ENCABEZADO_CSV);
+                    writer.write('\n');
+                }
+                for (ReservaResponse fila : (Iterable<ReservaResponse>) filas::iterator) {
+                    if (formato == Formato.CSV) {
+                        escribirCsv(writer, fila);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(fila));
+                    }
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void escribirCsv(Writer writer, ReservaResponse fila) throws IOException {
+        writer.write(String.valueOf(fila.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(fila.getCanchaId()));
+        writer.write(',');
+        writer.write(campoCsv(fila.getCanchaNombre()));
+        writer.write(',');
+        writer.write(campoCsv(fila.getCanchaDeporte()));
+        writer.write(',');
+        writer.write(campoCsv(fila.getCliente()));
+        writer.write(',');
+        writer.write(campoCsv(fila.getEstado()));
+        writer.write(',');
+        writer.write(String.valueOf(fila.getFecha()));
+        writer.write(',');
+        writer.write(String.valueOf(fila.getHoraInicio()));
+        writer.write(',');
+        writer.write(String.valueOf(fila.getHoraFin()));
+        writer.write(',');
+        writer.write(fila.getMonto() != null ? String.valueOf(fila.getMonto()) : "");
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private UserPrincipal getAuthenticatedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new AccessDeniedException("Usuario no autenticado");
+        }
+        return principal;
+    }
+}
@@ -0,0 +1,218 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasCambiadasEnLoteEvent;
+import com.playmatch.service.event.ReservasConfirmadasEnLoteEvent;
+import com.playmatch.service.repository.ReservaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indice en memoria, por cancha, de las franjas ocupadas por reservas no canceladas.
+ * Toda reserva PENDIENTE o CONFIRMADA cuenta como ocupada.
+ * <p>
+ * Se carga desde la base y despues se mantiene con los eventos que se publican al confirmar cada
+ * transaccion, asi que mientras esta vigente un conflicto encontrado aca alcanza para rechazar sin ir a la
+ * base. Cada evento sube ademas la generacion de su cancha: una carga que corrio mientras llegaba un cambio
+ * puede no verlo y se descarta, como en {@link DisponibilidadService}. Los cambios hechos por otra instancia
+ * no llegan como evento; el ttl acota cuanto tiempo puede seguir figurando una reserva que se cancelo alli.
+ */
+@Component
+public class ReservaIntervalIndex {
+
+    private final ReservaRepository reservaRepository;
+    private final Duration ttl;
+    private final Map<Long, IntervalosCancha> porCancha = new ConcurrentHashMap<>();
+
+    public ReservaIntervalIndex(ReservaRepository reservaRepository,
+                                @Value("${playmatch.reservas.indice.ttl:PT5M}") Duration ttl) {
+        this.reservaRepository = reservaRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Busca una reserva activa que se solape con el intervalo pedido. Si el indice de la cancha no esta
+     * vigente o no cubre el intervalo, lo recarga con una consulta dentro de la transaccion en curso.
+     */
+    public Consulta consultar(Long canchaId, LocalDateTime inicio, LocalDateTime fin) {
+        IntervalosCancha intervalos = porCancha.computeIfAbsent(canchaId, id -> new IntervalosCancha());
+        long generacion;
+        synchronized (intervalos) {
+            if (intervalos.vigente(ttl, inicio)) {
+                return new Consulta(intervalos.conflicto(inicio, fin), false);
+            }
+            generacion = intervalos.generacion;
+        }
+
+        // La carga va fuera del monitor para no frenar a los eventos, que suben la generacion mientras tanto
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime desde = inicio.isBefore(ahora) ? inicio : ahora;
+        IntervalosCancha cargados = new IntervalosCancha();
+        reservaRepository.findFranjasActivas(canchaId, desde).forEach(f ->
+                cargados.agregar(new Franja(f.getId(), f.getInicio(), f.getFin(), f.getEstado())));
+        synchronized (intervalos) {
+            if (intervalos.generacion == generacion) {
+                intervalos.reemplazar(cargados, desde, ahora);
+            }
+        }
+        return new Consulta(cargados.conflicto(inicio, fin), true);
+    }
+
+    /**
+     * Descarta las franjas cargadas de una cancha; se recargan desde la base en el proximo uso.
+     */
+    public void invalidar(Long canchaId) {
+        IntervalosCancha intervalos = porCancha.get(canchaId);
+        if (intervalos == null) {
+            return;
+        }
+        synchronized (intervalos) {
+            intervalos.generacion++;
+            intervalos.limpiar();
+            intervalos.cargadoEn = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCanchaCambiada(CanchaCambiadaEvent event) {
+        if (event.isEliminada()) {
+            porCancha.remove(event.getCanchaId());
+        }
+    }
+
+    /**
+     * Mantiene el indice sincronizado una vez confirmada la transaccion que modifico la reserva.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        aplicar(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservasCambiadasEnLote(ReservasCambiadasEnLoteEvent event) {
+        event.getCambios().forEach(this::aplicar);
+    }
+
+    /**
+     * El evento no trae que reservas se confirmaron, solo los totales por dia: las canchas afectadas
+     * se vuelven a cargar en el proximo uso.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservasConfirmadasEnLote(ReservasConfirmadasEnLoteEvent event) {
+        event.getCanchaIds().forEach(this::invalidar);
+    }
+
+    private void aplicar(ReservaCambiadaEvent event) {
+        IntervalosCancha intervalos = porCancha.get(event.getCanchaId());
+        if (intervalos == null) {
+            return; // Se cargara desde la base en el primer uso
+        }
+        synchronized (intervalos) {
+            intervalos.generacion++;
+            if (intervalos.cargadoEn == null) {
+                return;
+            }
+            if (event.isActiva()) {
+                intervalos.agregar(new Franja(event.getReservaId(), event.getInicio(), event.getFin(), event.getEstadoNuevo()));
+            } else {
+                intervalos.quitar(event.getReservaId());
+            }
+        }
+    }
+
+    /**
+     * Resultado de {@link #consultar}.
+     *
+     * @param conflicto     estado de la reserva en conflicto (CONFIRMADA si alguna lo esta), o null si la franja esta libre
+     * @param leidaDeLaBase si la respuesta sale de una carga hecha recien, dentro de la transaccion que consulta:
+     *                      en ese caso ya es la verificacion contra la base y no hace falta repetirla
+     */
+    public record Consulta(Reserva.EstadoReserva conflicto, boolean leidaDeLaBase) {
+
+        public boolean hayConflicto() {
+            return conflicto != null;
+        }
+    }
+
+    private record Franja(Long id, LocalDateTime inicio, LocalDateTime fin, Reserva.EstadoReserva estado) {
+    }
+
+    private static final Comparator<Franja> POR_INICIO = Comparator
+            .comparing(Franja::inicio)
+            .thenComparing(Franja::id);
+
+    /**
+     * Franjas de una cancha ordenadas por inicio. Las reservas activas de una cancha no se solapan,
+     * por lo que los fines quedan ordenados igual que los inicios y la busqueda corta en la primera
+     * franja que termina antes del intervalo pedido.
+     */
+    private static final class IntervalosCancha {
+        private final NavigableSet<Franja> franjas = new TreeSet<>(POR_INICIO);
+        private final Map<Long, Franja> porId = new HashMap<>();
+        private LocalDateTime cargadoEn;
+        // Desde donde se cargaron las franjas: las que terminaron antes no estan
+        private LocalDateTime cubreDesde;
+        private long generacion;
+
+        boolean vigente(Duration ttl, LocalDateTime inicio) {
+            return cargadoEn != null && !cargadoEn.plus(ttl).isBefore(LocalDateTime.now()) && !inicio.isBefore(cubreDesde);
+        }
+
+        void reemplazar(IntervalosCancha cargados, LocalDateTime desde, LocalDateTime ahora) {
+            limpiar();
+            franjas.addAll(cargados.franjas);
+            porId.putAll(cargados.porId);
+            cubreDesde = desde;
+            cargadoEn = ahora;
+        }
+
+        void agregar(Franja franja) {
+            quitar(franja.id());
+            franjas.add(franja);
+            porId.put(franja.id(), franja);
+        }
+
+        void quitar(Long id) {
+            Franja anterior = porId.remove(id);
+            if (anterior != null) {
+                franjas.remove(anterior);
+            }
+        }
+
+        void limpiar() {
+            franjas.clear();
+            porId.clear();
+        }
+
+        Reserva.EstadoReserva conflicto(LocalDateTime inicio, LocalDateTime fin) {
+            // Franjas que empiezan antes del fin pedido, de la mas cercana hacia atras
+            Franja limite = new Franja(Long.MIN_VALUE, fin, fin, null);
+            Iterator<Franja> candidatas = franjas.headSet(limite, false).descendingIterator();
+            Reserva.EstadoReserva encontrado = null;
+            while (candidatas.hasNext()) {
+                Franja franja = candidatas.next();
+                if (!franja.fin().isAfter(inicio)) {
+                    break;
+                }
+                if (franja.estado() == Reserva.EstadoReserva.CONFIRMADA) {
+                    return Reserva.EstadoReserva.CONFIRMADA;
+                }
+                encontrado = franja.estado();
+            }
+            return encontrado;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasCambiadasEnLoteEvent;
+import com.playmatch.service.event.ReservasConfirmadasEnLoteEvent;
+import com.playmatch.service.repository.ReservaRepository;
+import com.playmatch.service.repository.ReservaRollupDiariaRepository;
+import com.playmatch.service.service.lock.CanchaLockStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene {@link com.playmatch.service.entity.ReservaRollupDiaria} a partir de los eventos de reserva.
+ * Los listeners no son transaccionales a proposito: corren dentro de la transaccion que publica el evento,
+ * asi el total del dia se confirma o se descarta junto con el cambio de la reserva.
+ * <p>
+ * La reconstruccion completa se pide a mano con el perfil {@code reconstruir-rollup}
+ * ({@link ReconstruccionRollupRunner}) y se serializa entre instancias con un bloqueo de tarea.
+ */
+@Service
+public class ReservaRollupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservaRollupService.class);
+    // Clave del bloqueo de tarea que serializa las reconstrucciones
+    private static final int TAREA_RECONSTRUCCION = 1;
+
+    private final ReservaRollupDiariaRepository rollupRepository;
+    private final ReservaRepository reservaRepository;
+    private final CanchaLockStrategy canchaLockStrategy;
+    private final ReporteCache reporteCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservaRollupService(ReservaRollupDiariaRepository rollupRepository,
+                                ReservaRepository reservaRepository,
+                                CanchaLockStrategy canchaLockStrategy,
+                                ReporteCache reporteCache,
+                                PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.reservaRepository = reservaRepository;
+        this.canchaLockStrategy = canchaLockStrategy;
+        this.reporteCache = reporteCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Carga la tabla si esta vacia y ya hay reservas (primer arranque con la tabla nueva). Si varias instancias
+     * arrancan a la vez, la que obtiene el bloqueo despues ya la encuentra cargada y no hace nada.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rollupRepository.count() == 0 && reservaRepository.count() > 0) {
+            Integer filas = reconstruir(true);
+            if (filas != null) {
+                log.info("Rollup diario de reservas cargado: {} filas", filas);
+            }
+        }
+    }
+
+    /**
+     * Recalcula toda la tabla desde las reservas en una sola transaccion. Si otra instancia esta reconstruyendo,
+     * espera a que termine y vuelve a calcular sobre lo que esta dejo.
+     */
+    public int reconstruir() {
+        Integer filas = reconstruir(false);
+        return filas != null ? filas : 0;
+    }
+
+    private Integer reconstruir(boolean soloSiVacia) {
+        Integer filas = transactionTemplate.execute(status -> {
+            canchaLockStrategy.bloquearTarea(TAREA_RECONSTRUCCION);
+            if (soloSiVacia && rollupRepository.count() > 0) {
+                return null;
+            }
+            rollupRepository.borrarTodo();
+            return rollupRepository.reconstruir();
+        });
+        if (filas != null) {
+            reporteCache.invalidarTodo();
+        }
+        return filas;
+    }
+
+    @EventListener
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        aplicar(List.of(event));
+    }
+
+    @EventListener
+    public void onReservasCambiadasEnLote(ReservasCambiadasEnLoteEvent event) {
+        aplicar(event.getCambios());
+    }
+
+    /**
+     * Confirmar no cambia la cantidad de reservas del dia, solo suma el monto confirmado. Se aplica en el
+     * mismo orden fijo por cancha y fecha que {@link #aplicar}.
+     */
+    @EventListener
+    public void onReservasConfirmadasEnLote(ReservasConfirmadasEnLoteEvent event) {
+        event.getTotales().stream()
+                .sorted(Comparator.comparing(ReservasConfirmadasEnLoteEvent.TotalDia::canchaId)
+                        .thenComparing(ReservasConfirmadasEnLoteEvent.TotalDia::fecha))
+                .forEach(total -> sumar(new ClaveDia(total.canchaId(), total.fecha()), 0, total.monto()));
+    }
+
+    @EventListener
+    public void onCanchaCambiada(CanchaCambiadaEvent event) {
+        if (event.isEliminada()) {
+            rollupRepository.borrarDeCancha(event.getCanchaId());
+        }
+    }
+
+    private void aplicar(List<ReservaCambiadaEvent> cambios) {
+        // Un delta por cancha-dia, en orden fijo para que dos transacciones no se bloqueen en orden inverso
+        Map<ClaveDia, double[]> deltas = new TreeMap<>(Comparator.comparing(ClaveDia::canchaId).thenComparing(ClaveDia::fecha));
+        for (ReservaCambiadaEvent cambio : cambios) {
+            double monto = cambio.getMonto() != null ? cambio.getMonto() : 0.0;
+            double[] delta = deltas.computeIfAbsent(new ClaveDia(cambio.getCanchaId(), cambio.getInicio().toLocalDate()),
+                    clave -> new double[2]);
+            if (cambio.getEstadoAnterior() == null) {
+                delta[0]++;
+            }
+            if (cambio.getEstadoNuevo() == null) {
+                delta[0]--;
+            }
+            if (cambio.getEstadoNuevo() == Reserva.EstadoReserva.CONFIRMADA) {
+                delta[1] += monto;
+            }
+            if (cambio.getEstadoAnterior() == Reserva.EstadoReserva.CONFIRMADA) {
+                delta[1] -= monto;
+            }
+        }
+        deltas.forEach((clave, delta) -> sumar(clave, (long) delta[0], delta[1]));
+    }
+
+    private void sumar(ClaveDia clave, long cantidad, double monto) {
+        if (cantidad == 0 && monto == 0.0) {
+            return;
+        }
+        if (rollupRepository.sumar(clave.canchaId(), clave.fecha(), cantidad, monto) > 0) {
+            return;
+        }
+        // La fila del dia no existe: se crea bajo el lock de la cancha para no insertarla dos veces
+        canchaLockStrategy.bloquear(clave.canchaId());
+        if (rollupRepository.sumar(clave.canchaId(), clave.fecha(), cantidad, monto) == 0) {
+            rollupRepository.insertar(clave.canchaId(), clave.fecha(), cantidad, monto);
+        }
+    }
+
+    private record ClaveDia(Long canchaId, LocalDate fecha) {
+    }
+}
@@ -1,19 +1,27 @@
 package com.playmatch.service.service;
 
+import com.playmatch.service.dto.ConfirmacionLoteRequest;
+import com.playmatch.service.dto.PaginaReservas;
 import com.playmatch.service.dto.ReservaRequest;
 import com.playmatch.service.dto.ReservaResponse;
-import com.playmatch.service.entity.AdministradorCancha;
 import com.playmatch.service.entity.Cancha;
 import com.playmatch.service.entity.Jugador;
 import com.playmatch.service.entity.Role;
 import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasConfirmadasEnLoteEvent;
 import com.playmatch.service.exception.BadRequestException;
 import com.playmatch.service.exception.NotFoundException;
 import com.playmatch.service.repository.AdministradorCanchaRepository;
 import com.playmatch.service.repository.CanchaRepository;
 import com.playmatch.service.repository.JugadorRepository;
+import com.playmatch.service.repository.OrdenReservas;
 import com.playmatch.service.repository.ReservaRepository;
+import com.playmatch.service.repository.ReservaSpecifications;
 import com.playmatch.service.security.UserPrincipal;
+import com.playmatch.service.service.lock.CanchaLockStrategy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,27 +30,42 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
 
 @Service
 public class ReservationService {
 
+    private static final int MAX_LIMITE_PAGINA = 500;
+
     private final ReservaRepository reservaRepository;
     private final JugadorRepository jugadorRepository;
     private final CanchaRepository canchaRepository;
     private final AdministradorCanchaRepository administradorCanchaRepository;
+    private final ReservaIntervalIndex reservaIntervalIndex;
+    private final HorarioCanchaCache horarioCanchaCache;
+    private final VencimientoReservasService vencimientoReservasService;
+    private final CanchaLockStrategy canchaLockStrategy;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ReservationService(ReservaRepository reservaRepository,
                               JugadorRepository jugadorRepository,
                               CanchaRepository canchaRepository,
-                              AdministradorCanchaRepository administradorCanchaRepository) {
+                              AdministradorCanchaRepository administradorCanchaRepository,
+                              ReservaIntervalIndex reservaIntervalIndex,
+                              HorarioCanchaCache horarioCanchaCache,
+                              VencimientoReservasService vencimientoReservasService,
+                              CanchaLockStrategy canchaLockStrategy,
+                              ApplicationEventPublisher eventPublisher) {
         this.reservaRepository = reservaRepository;
         this.jugadorRepository = jugadorRepository;
         this.canchaRepository = canchaRepository;
         this.administradorCanchaRepository = administradorCanchaRepository;
+        this.reservaIntervalIndex = reservaIntervalIndex;
+        this.horarioCanchaCache = horarioCanchaCache;
+        this.vencimientoReservasService = vencimientoReservasService;
+        this.canchaLockStrategy = canchaLockStrategy;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -64,33 +87,32 @@ public class ReservationService {
         }
 
         // Validar que la reserva cae dentro de los horarios habilitados
-        java.time.LocalTime inicioTime = request.getInicio().toLocalTime();
-        java.time.LocalTime finTime = request.getFin().toLocalTime();
-        boolean permitido;
-        if (cancha.getHorarios() != null && !cancha.getHorarios().isEmpty()) {
-            permitido = cancha.getHorarios().stream().anyMatch(h ->
-                    !inicioTime.isBefore(h.getInicio()) && !finTime.isAfter(h.getFin()));
-        } else {
-            // Fallback a ventana unica de apertura/cierre si no hay intervalos cargados
-            permitido = (cancha.getHorarioApertura() == null || !inicioTime.isBefore(cancha.getHorarioApertura()))
-                    && (cancha.getHorarioCierre() == null || !finTime.isAfter(cancha.getHorarioCierre()));
-        }
+        boolean permitido = horarioCanchaCache.obtener(cancha).permite(request.getInicio(), request.getFin());
         if (!permitido) {
             throw new BadRequestException("La reserva no esta dentro de los horarios disponibles de la cancha");
         }
 
-        // Validar que no haya solapamiento con reservas confirmadas o pendientes
-        List<Reserva> existentes = reservaRepository.findOverlapping(cancha, request.getInicio(), request.getFin());
-        if (!existentes.isEmpty()) {
-            // Verificar si hay alguna reserva confirmada
-            boolean hayConfirmada = existentes.stream()
-                    .anyMatch(r -> r.getEstado() == Reserva.EstadoReserva.CONFIRMADA);
-            
-            if (hayConfirmada) {
-                throw new BadRequestException("La cancha ya tiene una reserva confirmada para el horario solicitado");
-            } else {
-                // Si solo hay reservas pendientes, informar al usuario
-                throw new BadRequestException("La cancha ya está reservada (pendiente de confirmación) para el horario solicitado");
+        // Serializar las reservas de esta cancha hasta el fin de la transaccion,
+        // para que dos pedidos simultaneos no pasen ambos la validacion de solapamiento
+        canchaLockStrategy.bloquear(cancha.getId());
+
+        // Validar que no haya solapamiento con reservas confirmadas o pendientes.
+        // Un conflicto en el indice en memoria se rechaza sin ir a la base
+        ReservaIntervalIndex.Consulta consulta = reservaIntervalIndex
+                .consultar(cancha.getId(), request.getInicio(), request.getFin());
+        if (consulta.hayConflicto()) {
+            rechazarPorSolapamiento(consulta.conflicto());
+        }
+        if (!consulta.leidaDeLaBase()) {
+            // Guarda final antes de aceptar: al indice le pueden faltar reservas creadas por otra instancia
+            // o confirmadas recien, cuyo evento todavia no se aplico
+            List<Reserva> existentes = reservaRepository.findOverlapping(cancha, request.getInicio(), request.getFin());
+            if (!existentes.isEmpty()) {
+                reservaIntervalIndex.invalidar(cancha.getId());
+                // Cualquier reserva no cancelada bloquea la franja; el estado solo elige el mensaje
+                boolean hayConfirmada = existentes.stream()
+                        .anyMatch(r -> r.getEstado() == Reserva.EstadoReserva.CONFIRMADA);
+                rechazarPorSolapamiento(hayConfirmada ? Reserva.EstadoReserva.CONFIRMADA : Reserva.EstadoReserva.PENDIENTE);
             }
         }
 
@@ -100,6 +122,7 @@ public class ReservationService {
         reserva.setInicio(request.getInicio());
         reserva.setFin(request.getFin());
         reserva.setEstado(Reserva.EstadoReserva.PENDIENTE);
+        reserva.setVenceEn(vencimientoReservasService.calcularVencimiento(LocalDateTime.now()));
         
         // Calcular monto basado en horas y precio de la cancha
         long horas = java.time.Duration.between(request.getInicio(), request.getFin()).toHours();
@@ -108,9 +131,18 @@ public class ReservationService {
         reserva.setMonto(montoTotal);
         
         Reserva guardada = reservaRepository.save(reserva);
+        eventPublisher.publishEvent(ReservaCambiadaEvent.creada(guardada));
         return toResponse(guardada);
     }
 
+    private void rechazarPorSolapamiento(Reserva.EstadoReserva estadoExistente) {
+        if (estadoExistente == Reserva.EstadoReserva.CONFIRMADA) {
+            throw new BadRequestException("La cancha ya tiene una reserva confirmada para el horario solicitado");
+        }
+        // Si solo hay reservas pendientes, informar al usuario
+        throw new BadRequestException("La cancha ya está reservada (pendiente de confirmación) para el horario solicitado");
+    }
+
     @Transactional(readOnly = true)
     public ReservaResponse obtenerReserva(Long id) {
         UserPrincipal principal = getAuthenticatedPrincipal();
@@ -126,123 +158,76 @@ public class ReservationService {
     }
 
     @Transactional(readOnly = true)
-    public List<ReservaResponse> listarMisReservas(String estado, LocalDate fechaDesde, LocalDate fechaHasta, 
-                                                     Long canchaId, String ordenarPor, String direccion) {
+    public PaginaReservas listarMisReservas(String estado, LocalDate fechaDesde, LocalDate fechaHasta,
+                                            Long canchaId, String ordenarPor, String direccion,
+                                            Long cursor, Integer limite, boolean incluirTotal) {
         UserPrincipal principal = getAuthenticatedPrincipal();
         if (principal.getRole() != Role.JUGADOR) {
             throw new AccessDeniedException("Solo los jugadores pueden listar sus reservas");
         }
-        Jugador jugador = jugadorRepository.findByUsuarioId(principal.getUsuarioId())
+        Long jugadorId = jugadorRepository.findIdByUsuarioId(principal.getUsuarioId())
                 .orElseThrow(() -> new AccessDeniedException("No se encontró un jugador asociado al usuario autenticado"));
 
-        Stream<Reserva> reservasStream = reservaRepository.findByJugador(jugador).stream();
-        
-        // Aplicar filtros
-        reservasStream = aplicarFiltros(reservasStream, estado, fechaDesde, fechaHasta, canchaId, null);
-        
-        // Convertir a response
-        List<ReservaResponse> reservas = reservasStream.map(this::toResponse).toList();
-        
-        // Aplicar ordenamiento
-        return aplicarOrdenamiento(reservas, ordenarPor, direccion);
+        Specification<Reserva> filtro = Specification.allOf(
+                ReservaSpecifications.delJugador(jugadorId),
+                ReservaSpecifications.filtros(estado, fechaDesde, fechaHasta, canchaId, null));
+        return buscarPagina(filtro, ordenarPor, direccion, cursor, limite, incluirTotal);
     }
 
     @Transactional(readOnly = true)
-    public List<ReservaResponse> listarReservasPorCancha(Long canchaId, String estado, LocalDate fechaDesde, 
-                                                          LocalDate fechaHasta, String cliente, String ordenarPor, String direccion) {
-        Cancha cancha = canchaRepository.findById(canchaId)
-                .orElseThrow(() -> new NotFoundException("Cancha no encontrada"));
+    public PaginaReservas listarReservasPorCancha(Long canchaId, String estado, LocalDate fechaDesde,
+                                                  LocalDate fechaHasta, String cliente, String ordenarPor, String direccion,
+                                                  Long cursor, Integer limite, boolean incluirTotal) {
+        if (!canchaRepository.existsById(canchaId)) {
+            throw new NotFoundException("Cancha no encontrada");
+        }
 
-        Stream<Reserva> reservasStream = reservaRepository.findByCancha(cancha).stream();
-        
-        // Aplicar filtros
-        reservasStream = aplicarFiltros(reservasStream, estado, fechaDesde, fechaHasta, null, cliente);
-        
-        // Convertir a response
-        List<ReservaResponse> reservas = reservasStream.map(this::toResponse).toList();
-        
-        // Aplicar ordenamiento
-        return aplicarOrdenamiento(reservas, ordenarPor, direccion);
+        Specification<Reserva> filtro = Specification.allOf(
+                ReservaSpecifications.deCancha(canchaId),
+                ReservaSpecifications.filtros(estado, fechaDesde, fechaHasta, null, cliente));
+        return buscarPagina(filtro, ordenarPor, direccion, cursor, limite, incluirTotal);
     }
 
     @Transactional(readOnly = true)
-    public List<ReservaResponse> listarReservasDelAdministrador(String estado, LocalDate fechaDesde, 
-                                                                 LocalDate fechaHasta, Long canchaId, String cliente,
-                                                                 String ordenarPor, String direccion) {
+    public PaginaReservas listarReservasDelAdministrador(String estado, LocalDate fechaDesde,
+                                                         LocalDate fechaHasta, Long canchaId, String cliente,
+                                                         String ordenarPor, String direccion,
+                                                         Long cursor, Integer limite, boolean incluirTotal) {
         UserPrincipal principal = getAuthenticatedPrincipal();
         if (principal.getRole() != Role.ADMINISTRADOR_CANCHA) {
             throw new AccessDeniedException("Solo los administradores de cancha pueden listar reservas de sus canchas");
         }
         
         // Buscar el administrador asociado al usuario autenticado
-        AdministradorCancha administrador = administradorCanchaRepository.findByUsuarioId(principal.getUsuarioId())
+        Long administradorId = administradorCanchaRepository.findIdByUsuarioId(principal.getUsuarioId())
                 .orElseThrow(() -> new NotFoundException("No se encontró un administrador asociado al usuario"));
         
-        // Obtener todas las reservas de las canchas del administrador
-        Stream<Reserva> reservasStream = reservaRepository.findByAdministradorCanchaId(administrador.getId()).stream();
-        
-        // Aplicar filtros
-        reservasStream = aplicarFiltros(reservasStream, estado, fechaDesde, fechaHasta, canchaId, cliente);
-        
-        // Convertir a response
-        List<ReservaResponse> reservas = reservasStream.map(this::toResponse).toList();
-        
-        // Aplicar ordenamiento
-        return aplicarOrdenamiento(reservas, ordenarPor, direccion);
+        // Reservas de todas las canchas del administrador
+        Specification<Reserva> filtro = Specification.allOf(
+                ReservaSpecifications.delAdministrador(administradorId),
+                ReservaSpecifications.filtros(estado, fechaDesde, fechaHasta, canchaId, cliente));
+        return buscarPagina(filtro, ordenarPor, direccion, cursor, limite, incluirTotal);
     }
     
-    private Stream<Reserva> aplicarFiltros(Stream<Reserva> stream, String estado, LocalDate fechaDesde, 
-                                            LocalDate fechaHasta, Long canchaId, String cliente) {
-        // Filtro por estado
-        if (estado != null && !estado.isBlank()) {
-            String estadoUpper = estado.toUpperCase();
-            stream = stream.filter(r -> r.getEstado().name().equals(estadoUpper));
+    /**
+     * Ejecuta filtro, orden y paginacion en la base. Se pide una fila extra para saber si hay otra pagina.
+     */
+    private PaginaReservas buscarPagina(Specification<Reserva> filtro, String ordenarPor, String direccion,
+                                        Long cursor, Integer limite, boolean incluirTotal) {
+        if (limite != null && (limite < 1 || limite > MAX_LIMITE_PAGINA)) {
+            throw new BadRequestException("El limite debe estar entre 1 y " + MAX_LIMITE_PAGINA);
         }
-        
-        // Filtro por fecha desde
-        if (fechaDesde != null) {
-            LocalDateTime fechaDesdeTime = fechaDesde.atStartOfDay();
-            stream = stream.filter(r -> !r.getInicio().isBefore(fechaDesdeTime));
-        }
-        
-        // Filtro por fecha hasta
-        if (fechaHasta != null) {
-            LocalDateTime fechaHastaTime = fechaHasta.atTime(LocalTime.MAX);
-            stream = stream.filter(r -> !r.getInicio().isAfter(fechaHastaTime));
-        }
-        
-        // Filtro por cancha (para mis reservas)
-        if (canchaId != null) {
-            stream = stream.filter(r -> r.getCancha().getId().equals(canchaId));
-        }
-        
-        // Filtro por cliente (para reservas de cancha)
-        if (cliente != null && !cliente.isBlank()) {
-            String clienteLower = cliente.toLowerCase();
-            stream = stream.filter(r -> r.getJugador().getNombre().toLowerCase().contains(clienteLower));
+        boolean descendente = "desc".equalsIgnoreCase(direccion);
+        List<ReservaResponse> filas = reservaRepository.buscarPagina(filtro, OrdenReservas.desde(ordenarPor), descendente,
+                cursor, limite != null ? limite + 1 : null);
+
+        Long siguienteCursor = null;
+        if (limite != null && filas.size() > limite) {
+            filas = filas.subList(0, limite);
+            siguienteCursor = filas.get(limite - 1).getId();
         }
-        
-        return stream;
-    }
-    
-    private List<ReservaResponse> aplicarOrdenamiento(List<ReservaResponse> reservas, String ordenarPor, String direccion) {
-        Comparator<ReservaResponse> comparator = switch (ordenarPor.toLowerCase()) {
-            case "fecha" -> Comparator.comparing(r -> r.getFecha());
-            case "hora", "horainicio" -> Comparator.comparing(r -> r.getHoraInicio());
-            case "horafin" -> Comparator.comparing(r -> r.getHoraFin());
-            case "estado" -> Comparator.comparing(r -> r.getEstado());
-            case "cliente" -> Comparator.comparing(r -> r.getCliente());
-            case "monto" -> Comparator.comparing(r -> r.getMonto() != null ? r.getMonto() : 0.0);
-            case "cancha", "canchaid" -> Comparator.comparing(r -> r.getCanchaNombre());
-            default -> Comparator.comparing(r -> r.getFecha()); // Por defecto ordenar por fecha
-        };
-        
-        // Aplicar dirección (asc o desc)
-        if ("desc".equalsIgnoreCase(direccion)) {
-            comparator = comparator.reversed();
-        }
-        
-        return reservas.stream().sorted(comparator).toList();
+        Long total = incluirTotal ? reservaRepository.count(filtro) : null;
+        return new PaginaReservas(filas, siguienteCursor, total);
     }
 
     @Transactional
@@ -259,78 +244,114 @@ public class ReservationService {
             throw new AccessDeniedException("No tienes permiso para cancelar esta reserva");
         }
 
-        reservaRepository.deleteById(id);
+        reservaRepository.delete(reserva);
+        eventPublisher.publishEvent(ReservaCambiadaEvent.eliminada(reserva));
     }
 
     @Transactional
     public ReservaResponse confirmarReserva(Long id) {
         UserPrincipal principal = getAuthenticatedPrincipal();
-        Reserva reserva = reservaRepository.findById(id)
+        int actualizadas = reservaRepository.cambiarEstadoPendiente(id, principal.getUsuarioId(), Reserva.EstadoReserva.CONFIRMADA);
+        ReservaRepository.DetalleReserva detalle = reservaRepository.findDetalleById(id)
                 .orElseThrow(() -> new NotFoundException("Reserva no encontrada"));
 
-        // Validar que el usuario sea el dueño de la cancha
-        if (!reserva.getCancha().getAdministradorCancha().getUsuario().getId().equals(principal.getUsuarioId())) {
-            throw new AccessDeniedException("Solo el administrador de la cancha puede confirmar reservas");
-        }
-
-        if (reserva.getEstado() == Reserva.EstadoReserva.CONFIRMADA) {
-            throw new BadRequestException("La reserva ya está confirmada");
-        }
-
-        if (reserva.getEstado() == Reserva.EstadoReserva.CANCELADA) {
-            throw new BadRequestException("No se puede confirmar una reserva cancelada");
+        if (actualizadas == 0) {
+            // Validar que el usuario sea el dueño de la cancha
+            if (!principal.getUsuarioId().equals(detalle.getUsuarioAdministradorId())) {
+                throw new AccessDeniedException("Solo el administrador de la cancha puede confirmar reservas");
+            }
+            if (detalle.getEstado() == Reserva.EstadoReserva.CONFIRMADA) {
+                throw new BadRequestException("La reserva ya está confirmada");
+            }
+            if (detalle.getEstado() == Reserva.EstadoReserva.CANCELADA) {
+                throw new BadRequestException("No se puede confirmar una reserva cancelada");
+            }
+            throw new BadRequestException("La reserva cambió de estado, intente nuevamente");
         }
 
-        reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
-        Reserva actualizada = reservaRepository.save(reserva);
-        return toResponse(actualizada);
+        eventPublisher.publishEvent(cambioDeEstado(detalle, Reserva.EstadoReserva.PENDIENTE));
+        return toResponse(detalle);
     }
 
     @Transactional
     public ReservaResponse rechazarReserva(Long id) {
         UserPrincipal principal = getAuthenticatedPrincipal();
-        Reserva reserva = reservaRepository.findById(id)
+        int actualizadas = reservaRepository.cambiarEstadoPendiente(id, principal.getUsuarioId(), Reserva.EstadoReserva.CANCELADA);
+        ReservaRepository.DetalleReserva detalle = reservaRepository.findDetalleById(id)
                 .orElseThrow(() -> new NotFoundException("Reserva no encontrada"));
 
-        // Validar que el usuario sea el dueño de la cancha
-        if (!reserva.getCancha().getAdministradorCancha().getUsuario().getId().equals(principal.getUsuarioId())) {
-            throw new AccessDeniedException("Solo el administrador de la cancha puede rechazar reservas");
-        }
-
-        if (reserva.getEstado() == Reserva.EstadoReserva.CONFIRMADA) {
-            throw new BadRequestException("No se puede rechazar una reserva ya confirmada");
+        if (actualizadas == 0) {
+            // Validar que el usuario sea el dueño de la cancha
+            if (!principal.getUsuarioId().equals(detalle.getUsuarioAdministradorId())) {
+                throw new AccessDeniedException("Solo el administrador de la cancha puede rechazar reservas");
+            }
+            if (detalle.getEstado() == Reserva.EstadoReserva.CONFIRMADA) {
+                throw new BadRequestException("No se puede rechazar una reserva ya confirmada");
+            }
+            if (detalle.getEstado() == Reserva.EstadoReserva.CANCELADA) {
+                throw new BadRequestException("La reserva ya está cancelada");
+            }
+            throw new BadRequestException("La reserva cambió de estado, intente nuevamente");
         }
 
-        if (reserva.getEstado() == Reserva.EstadoReserva.CANCELADA) {
-            throw new BadRequestException("La reserva ya está cancelada");
-        }
+        eventPublisher.publishEvent(cambioDeEstado(detalle, Reserva.EstadoReserva.PENDIENTE));
+        return toResponse(detalle);
+    }
 
-        reserva.setEstado(Reserva.EstadoReserva.CANCELADA);
-        Reserva actualizada = reservaRepository.save(reserva);
-        return toResponse(actualizada);
+    private ReservaCambiadaEvent cambioDeEstado(ReservaRepository.DetalleReserva detalle, Reserva.EstadoReserva estadoAnterior) {
+        return new ReservaCambiadaEvent(detalle.getId(), detalle.getCanchaId(), detalle.getAdministradorCanchaId(),
+                detalle.getInicio(), detalle.getFin(), detalle.getMonto(), estadoAnterior, detalle.getEstado());
     }
 
     @Transactional
     public int confirmarTodasReservasPendientes() {
+        return confirmarPendientes(getAdministradorAutenticadoId(), null, null, null);
+    }
+
+    /**
+     * Confirma las reservas pendientes indicadas por id o por rango de fechas.
+     * Las reservas que no son del administrador o que no estan pendientes se ignoran.
+     */
+    @Transactional
+    public int confirmarReservasEnLote(ConfirmacionLoteRequest request) {
+        Long administradorId = getAdministradorAutenticadoId();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            if (request.getFechaDesde() != null || request.getFechaHasta() != null) {
+                throw new BadRequestException("Indique ids o un rango de fechas, no ambos");
+            }
+            return confirmarPendientes(administradorId, request.getIds(), null, null);
+        }
+        if (request.getFechaDesde() != null && request.getFechaHasta() != null) {
+            if (request.getFechaHasta().isBefore(request.getFechaDesde())) {
+                throw new BadRequestException("La fecha hasta debe ser posterior o igual a la fecha desde");
+            }
+            return confirmarPendientes(administradorId, null,
+                    request.getFechaDesde().atStartOfDay(), request.getFechaHasta().plusDays(1).atStartOfDay());
+        }
+        throw new BadRequestException("Debe indicar los ids de las reservas o un rango de fechas completo");
+    }
+
+    /**
+     * Confirma con un solo UPDATE las reservas pendientes del administrador que cumplen el filtro,
+     * y publica los totales por cancha y dia que devolvio esa misma sentencia.
+     */
+    private int confirmarPendientes(Long administradorId, Collection<Long> ids, LocalDateTime desde, LocalDateTime hasta) {
+        List<ReservasConfirmadasEnLoteEvent.TotalDia> totales = reservaRepository
+                .confirmarPendientes(administradorId, ids, desde, hasta).stream()
+                .map(t -> new ReservasConfirmadasEnLoteEvent.TotalDia(t.canchaId(), t.fecha(), t.cantidad(), t.monto()))
+                .toList();
+        if (totales.isEmpty()) {
+            return 0;
+        }
+        ReservasConfirmadasEnLoteEvent event = new ReservasConfirmadasEnLoteEvent(administradorId, totales);
+        eventPublisher.publishEvent(event);
+        return Math.toIntExact(event.getCantidad());
+    }
+
+    private Long getAdministradorAutenticadoId() {
         UserPrincipal principal = getAuthenticatedPrincipal();
-        
-        // Obtener el administrador de cancha autenticado
-        AdministradorCancha administrador = administradorCanchaRepository.findByUsuarioId(principal.getUsuarioId())
+        return administradorCanchaRepository.findIdByUsuarioId(principal.getUsuarioId())
                 .orElseThrow(() -> new AccessDeniedException("No se encontró un administrador asociado al usuario autenticado"));
-        
-        // Obtener todas las reservas pendientes de las canchas del administrador
-        List<Reserva> reservasPendientes = administrador.getCanchas().stream()
-                .flatMap(cancha -> cancha.getReservas().stream())
-                .filter(reserva -> reserva.getEstado() == Reserva.EstadoReserva.PENDIENTE)
-                .toList();
-        
-        // Confirmar todas las reservas pendientes
-        reservasPendientes.forEach(reserva -> {
-            reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
-            reservaRepository.save(reserva);
-        });
-        
-        return reservasPendientes.size();
     }
 
     private UserPrincipal getAuthenticatedPrincipal() {
@@ -342,17 +363,14 @@ public class ReservationService {
     }
 
     private ReservaResponse toResponse(Reserva reserva) {
-        ReservaResponse response = new ReservaResponse();
-        response.setId(reserva.getId());
-        response.setCanchaId(reserva.getCancha().getId());
-        response.setCanchaNombre(reserva.getCancha().getNombre());
-        response.setCanchaDeporte(reserva.getCancha().getTipo() != null ? reserva.getCancha().getTipo().name() : null);
-        response.setCliente(reserva.getJugador().getNombre());
-        response.setEstado(reserva.getEstado().name().toLowerCase());
-        response.setFecha(reserva.getInicio().toLocalDate());
-        response.setHoraInicio(reserva.getInicio().toLocalTime());
-        response.setHoraFin(reserva.getFin().toLocalTime());
-        response.setMonto(reserva.getMonto());
-        return response;
+        Cancha cancha = reserva.getCancha();
+        return new ReservaResponse(reserva.getId(), cancha.getId(), cancha.getNombre(), cancha.getTipo(),
+                reserva.getJugador().getNombre(), reserva.getEstado(), reserva.getInicio(), reserva.getFin(),
+                reserva.getMonto());
+    }
+
+    private ReservaResponse toResponse(ReservaRepository.DetalleReserva detalle) {
+        return new ReservaResponse(detalle.getId(), detalle.getCanchaId(), detalle.getCanchaNombre(), detalle.getCanchaTipo(),
+                detalle.getCliente(), detalle.getEstado(), detalle.getInicio(), detalle.getFin(), detalle.getMonto());
     }
 }
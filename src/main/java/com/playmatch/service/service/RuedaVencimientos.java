@@ -0,0 +1,85 @@
+package com.playmatch.service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Rueda de tiempo con hash (hashed timing wheel). Cada vencimiento cae en la ranura
+ * {@code tick % ranuras} y en cada tick se recorre una sola ranura, de modo que programar
+ * y avanzar no dependen de cuantas reservas haya pendientes.
+ * <p>
+ * {@link #programar} puede llamarse desde cualquier hilo; {@link #avanzar} solo desde el hilo de la rueda.
+ */
+final class RuedaVencimientos {
+
+    private record Entrada(long reservaId, long tick) {
+    }
+
+    private final long origenMillis;
+    private final long tickMillis;
+    private final List<Entrada>[] ranuras;
+    private final int mascara;
+    private final Queue<Entrada> nuevas = new ConcurrentLinkedQueue<>();
+    private long tickActual;
+
+    @SuppressWarnings("unchecked")
+    RuedaVencimientos(long origenMillis, long tickMillis, int cantidadRanuras) {
+        if (Integer.bitCount(cantidadRanuras) != 1) {
+            throw new IllegalArgumentException("La cantidad de ranuras debe ser potencia de 2");
+        }
+        this.origenMillis = origenMillis;
+        this.tickMillis = tickMillis;
+        this.ranuras = new List[cantidadRanuras];
+        for (int i = 0; i < cantidadRanuras; i++) {
+            ranuras[i] = new ArrayList<>();
+        }
+        this.mascara = cantidadRanuras - 1;
+    }
+
+    /**
+     * Programa el vencimiento de una reserva. Se redondea hacia arriba al tick siguiente,
+     * asi la rueda nunca dispara antes del vencimiento guardado en la base.
+     */
+    void programar(long reservaId, long vencimientoMillis) {
+        long tick = Math.max(0, Math.ceilDiv(vencimientoMillis - origenMillis, tickMillis));
+        nuevas.add(new Entrada(reservaId, tick));
+    }
+
+    /**
+     * Avanza la rueda hasta el instante dado y devuelve las reservas vencidas en el camino.
+     */
+    List<Long> avanzar(long ahoraMillis) {
+        long objetivo = Math.floorDiv(ahoraMillis - origenMillis, tickMillis);
+        List<Long> vencidas = new ArrayList<>();
+
+        Entrada nueva;
+        while ((nueva = nuevas.poll()) != null) {
+            if (nueva.tick() <= tickActual) {
+                vencidas.add(nueva.reservaId());
+            } else {
+                ranuras[(int) (nueva.tick() & mascara)].add(nueva);
+            }
+        }
+
+        // Con una vuelta completa ya se visitan todas las ranuras, aunque el hilo se haya demorado mas
+        long pasos = Math.min(objetivo - tickActual, ranuras.length);
+        for (long paso = 1; paso <= pasos; paso++) {
+            List<Entrada> ranura = ranuras[(int) ((tickActual + paso) & mascara)];
+            int conservadas = 0;
+            for (Entrada entrada : ranura) {
+                if (entrada.tick() <= objetivo) {
+                    vencidas.add(entrada.reservaId());
+                } else {
+                    ranura.set(conservadas++, entrada);
+                }
+            }
+            ranura.subList(conservadas, ranura.size()).clear();
+        }
+        if (objetivo > tickActual) {
+            tickActual = objetivo;
+        }
+        return vencidas;
+    }
+}
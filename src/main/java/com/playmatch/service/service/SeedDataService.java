@@ -8,12 +8,14 @@ import com.playmatch.service.entity.Jugador;
 import com.playmatch.service.entity.Reserva;
 import com.playmatch.service.entity.Role;
 import com.playmatch.service.entity.Usuario;
+import com.playmatch.service.event.ReservaCambiadaEvent;
 import com.playmatch.service.exception.NotFoundException;
 import com.playmatch.service.repository.AdministradorCanchaRepository;
 import com.playmatch.service.repository.CanchaRepository;
 import com.playmatch.service.repository.JugadorRepository;
 import com.playmatch.service.repository.ReservaRepository;
 import com.playmatch.service.repository.UsuarioRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +37,7 @@ public class SeedDataService {
     private final ReservaRepository reservaRepository;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     private final Random random = new Random();
 
     // Nombres aleatorios para jugadores
@@ -64,13 +67,15 @@ public class SeedDataService {
                           JugadorRepository jugadorRepository,
                           ReservaRepository reservaRepository,
                           UsuarioRepository usuarioRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          ApplicationEventPublisher eventPublisher) {
         this.administradorCanchaRepository = administradorCanchaRepository;
         this.canchaRepository = canchaRepository;
         this.jugadorRepository = jugadorRepository;
         this.reservaRepository = reservaRepository;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -131,6 +136,7 @@ public class SeedDataService {
         
         // Guardar todas las reservas en batch
         List<Reserva> reservasCreadas = reservaRepository.saveAll(reservasAGuardar);
+        reservasCreadas.forEach(reserva -> eventPublisher.publishEvent(ReservaCambiadaEvent.creada(reserva)));
 
         // Preparar respuesta
         List<String> nombresCancha = canchas.stream()
@@ -0,0 +1,159 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import com.playmatch.service.event.ReservasCambiadasEnLoteEvent;
+import com.playmatch.service.repository.ReservaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancela las reservas que quedan PENDIENTE mas alla del tiempo de espera configurado,
+ * para que no bloqueen la franja indefinidamente.
+ * <p>
+ * Cada instancia programa en una {@link RuedaVencimientos} las pendientes que existen al arrancar
+ * y las que se crean luego. Un barrido periodico contra la base cubre las creadas por otras
+ * instancias o perdidas en un reinicio. La cancelacion bloquea las filas con SKIP LOCKED y vuelve
+ * a verificar estado y vencimiento, por lo que varias instancias pueden correr a la vez.
+ */
+@Service
+public class VencimientoReservasService {
+
+    private static final Logger log = LoggerFactory.getLogger(VencimientoReservasService.class);
+    private static final int RANURAS = 512;
+
+    private final ReservaRepository reservaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final Duration espera;
+    private final Duration tick;
+    private final Duration barrido;
+    private final int lote;
+    private final RuedaVencimientos rueda;
+    private ScheduledExecutorService executor;
+
+    public VencimientoReservasService(ReservaRepository reservaRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${playmatch.reservas.vencimiento.habilitado:true}") boolean habilitado,
+                                      @Value("${playmatch.reservas.vencimiento.espera:PT24H}") Duration espera,
+                                      @Value("${playmatch.reservas.vencimiento.tick:PT1S}") Duration tick,
+                                      @Value("${playmatch.reservas.vencimiento.barrido:PT1M}") Duration barrido,
+                                      @Value("${playmatch.reservas.vencimiento.lote:500}") int lote) {
+        this.reservaRepository = reservaRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.espera = espera;
+        this.tick = tick;
+        this.barrido = barrido;
+        this.lote = lote;
+        this.rueda = new RuedaVencimientos(System.currentTimeMillis(), tick.toMillis(), RANURAS);
+    }
+
+    /**
+     * Vencimiento que corresponde a una reserva pendiente creada en el instante dado, o null si esta deshabilitado.
+     */
+    public LocalDateTime calcularVencimiento(LocalDateTime creadaEn) {
+        return habilitado ? creadaEn.plus(espera) : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        reservaRepository.findVencimientosPendientes()
+                .forEach(p -> rueda.programar(p.getId(), aMillis(p.getVenceEn())));
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "vencimiento-reservas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        executor.scheduleAtFixedRate(this::avanzarRueda, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::barrer, 0, barrido.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservaCambiada(ReservaCambiadaEvent event) {
+        if (habilitado && event.getEstadoAnterior() == null && event.getEstadoNuevo() == Reserva.EstadoReserva.PENDIENTE) {
+            rueda.programar(event.getReservaId(), aMillis(calcularVencimiento(LocalDateTime.now())));
+        }
+    }
+
+    private void avanzarRueda() {
+        try {
+            List<Long> vencidas = rueda.avanzar(System.currentTimeMillis());
+            for (int desde = 0; desde < vencidas.size(); desde += lote) {
+                List<Long> ids = vencidas.subList(desde, Math.min(desde + lote, vencidas.size()));
+                transactionTemplate.execute(status ->
+                        cancelar(reservaRepository.bloquearPendientesVencidas(ids, LocalDateTime.now())));
+            }
+        } catch (RuntimeException e) {
+            // Lo que no se pudo cancelar aca lo toma el proximo barrido
+            log.error("Error al cancelar reservas pendientes vencidas", e);
+        }
+    }
+
+    private void barrer() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    reservaRepository.asignarVencimientoFaltante(calcularVencimiento(LocalDateTime.now())));
+            Integer canceladas;
+            do {
+                canceladas = transactionTemplate.execute(status ->
+                        cancelar(reservaRepository.bloquearPendientesVencidas(LocalDateTime.now(), lote)));
+            } while (canceladas != null && canceladas == lote);
+        } catch (RuntimeException e) {
+            log.error("Error en el barrido de reservas pendientes vencidas", e);
+        }
+    }
+
+    /**
+     * Cancela en una sola sentencia las reservas ya bloqueadas y publica un evento con el detalle,
+     * para que el indice de franjas y la disponibilidad las liberen al confirmar la transaccion.
+     */
+    private int cancelar(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<ReservaCambiadaEvent> cambios = reservaRepository.findDetallesByIdIn(ids).stream()
+                .map(d -> new ReservaCambiadaEvent(d.getId(), d.getCanchaId(), d.getAdministradorCanchaId(),
+                        d.getInicio(), d.getFin(), d.getMonto(), Reserva.EstadoReserva.PENDIENTE, Reserva.EstadoReserva.CANCELADA))
+                .toList();
+        reservaRepository.actualizarEstadoPorIds(ids, Reserva.EstadoReserva.CANCELADA);
+        eventPublisher.publishEvent(new ReservasCambiadasEnLoteEvent(cambios));
+        return ids.size();
+    }
+
+    private static long aMillis(LocalDateTime instante) {
+        return instante.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,33 @@
+package com.playmatch.service.service.lock;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloqueo con {@code pg_advisory_xact_lock} de PostgreSQL, usando el id de la cancha como clave.
+ * Postgres libera el lock al terminar la transaccion, por lo que serializa entre todas las instancias.
+ * Las tareas usan la variante de dos claves, que Postgres guarda aparte de las de una sola clave.
+ */
+@Component
+@ConditionalOnProperty(name = "playmatch.reservas.lock.modo", havingValue = "advisory")
+public class AdvisoryCanchaLockStrategy implements CanchaLockStrategy {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void bloquear(Long canchaId) {
+        entityManager.createNativeQuery("SELECT pg_advisory_xact_lock(:clave)")
+                .setParameter("clave", canchaId)
+                .getSingleResult();
+    }
+
+    @Override
+    public void bloquearTarea(int tarea) {
+        entityManager.createNativeQuery("SELECT pg_advisory_xact_lock(:tarea, 0)")
+                .setParameter("tarea", tarea)
+                .getSingleResult();
+    }
+}
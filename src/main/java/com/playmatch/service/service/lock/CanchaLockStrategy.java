@@ -0,0 +1,20 @@
+package com.playmatch.service.service.lock;
+
+/**
+ * Serializa las operaciones de reserva sobre una misma cancha.
+ * El bloqueo se toma dentro de la transaccion en curso y se libera al terminar la misma,
+ * de modo que reservas sobre canchas distintas no compiten entre si.
+ */
+public interface CanchaLockStrategy {
+
+    /**
+     * Bloquea la cancha hasta que finalice la transaccion activa.
+     */
+    void bloquear(Long canchaId);
+
+    /**
+     * Bloquea una tarea de mantenimiento global (por ejemplo, reconstruir el rollup) hasta que finalice la
+     * transaccion activa, esperando lo necesario. No compite con los bloqueos de cancha.
+     */
+    void bloquearTarea(int tarea);
+}
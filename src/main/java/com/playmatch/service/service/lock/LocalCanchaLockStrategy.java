@@ -0,0 +1,86 @@
+package com.playmatch.service.service.lock;
+
+import com.playmatch.service.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueo en memoria con lock striping: cada cancha se asigna a uno de N locks.
+ * Solo serializa dentro de una misma instancia; para varias instancias usar el modo {@code advisory}.
+ */
+@Component
+@ConditionalOnProperty(name = "playmatch.reservas.lock.modo", havingValue = "local", matchIfMissing = true)
+public class LocalCanchaLockStrategy implements CanchaLockStrategy {
+
+    private final ReentrantLock[] stripes;
+    private final Duration esperaMaxima;
+    // Las tareas no comparten stripes con las canchas, para no frenar reservas mientras corren
+    private final Map<Integer, ReentrantLock> tareas = new ConcurrentHashMap<>();
+
+    public LocalCanchaLockStrategy(@Value("${playmatch.reservas.lock.stripes:64}") int cantidadStripes,
+                                   @Value("${playmatch.reservas.lock.espera-maxima:PT5S}") Duration esperaMaxima) {
+        // Redondear a potencia de dos para poder indexar con una mascara
+        int pedido = Math.max(1, cantidadStripes);
+        int tamanio = Integer.bitCount(pedido) == 1 ? pedido : Integer.highestOneBit(pedido) << 1;
+        this.stripes = new ReentrantLock[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    @Override
+    public void bloquear(Long canchaId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo de cancha requiere una transaccion activa");
+        }
+        ReentrantLock lock = stripes[indice(canchaId)];
+        try {
+            if (!lock.tryLock(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new BadRequestException("La cancha esta procesando otra reserva, intenta nuevamente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el bloqueo de la cancha", e);
+        }
+        liberarAlTerminar(lock);
+    }
+
+    @Override
+    public void bloquearTarea(int tarea) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo de tarea requiere una transaccion activa");
+        }
+        ReentrantLock lock = tareas.computeIfAbsent(tarea, t -> new ReentrantLock());
+        try {
+            lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el bloqueo de la tarea", e);
+        }
+        liberarAlTerminar(lock);
+    }
+
+    private void liberarAlTerminar(ReentrantLock lock) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int indice(Long canchaId) {
+        int h = Long.hashCode(canchaId);
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+}
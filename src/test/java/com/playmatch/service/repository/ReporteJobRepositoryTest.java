@@ -0,0 +1,101 @@
+package com.playmatch.service.repository;
+
+import com.playmatch.service.entity.ReporteJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Solo se reanudan los trabajos cuya instancia dejo de latir, y cada uno lo reclama una sola instancia:
+ * la que lo tenia antes ya no puede avanzarlo ni guardar su resultado.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jobs;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReporteJobRepositoryTest {
+
+    @Autowired
+    private ReporteJobRepository reporteJobRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private LocalDateTime ahora;
+    private LocalDateTime limite;
+    private Long vivo;
+    private Long abandonado;
+
+    @BeforeEach
+    void sembrar() {
+        ahora = LocalDateTime.now();
+        limite = ahora.minusMinutes(1);
+        vivo = job("viva", ahora.minusSeconds(10)).getId();
+        abandonado = job("caida", ahora.minusMinutes(5)).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void soloSeReclamanLosTrabajosSinLatido() {
+        assertThat(reporteJobRepository.findIdsAbandonados(limite)).containsExactly(abandonado);
+        assertThat(reporteJobRepository.reclamar(vivo, "nueva", ahora, limite)).isZero();
+
+        assertThat(reporteJobRepository.reclamar(abandonado, "nueva", ahora, limite)).isEqualTo(1);
+        entityManager.clear();
+        ReporteJob reclamado = reporteJobRepository.findById(abandonado).orElseThrow();
+        assertThat(reclamado.getInstancia()).isEqualTo("nueva");
+        assertThat(reclamado.getEstado()).isEqualTo(ReporteJob.EstadoJob.PENDIENTE);
+        assertThat(reclamado.getProgreso()).isZero();
+    }
+
+    @Test
+    void unTrabajoLoReclamaUnaSolaInstancia() {
+        assertThat(reporteJobRepository.reclamar(abandonado, "a", ahora, limite)).isEqualTo(1);
+        assertThat(reporteJobRepository.reclamar(abandonado, "b", ahora, limite)).isZero();
+    }
+
+    @Test
+    void laInstanciaAnteriorYaNoEscribeElTrabajo() {
+        reporteJobRepository.reclamar(abandonado, "nueva", ahora, limite);
+
+        assertThat(reporteJobRepository.actualizarProgreso(abandonado, "caida", 50)).isZero();
+        assertThat(reporteJobRepository.finalizar(abandonado, "caida", ReporteJob.EstadoJob.COMPLETADO, 100,
+                "[]", null, ahora)).isZero();
+        assertThat(reporteJobRepository.iniciar(abandonado, "nueva")).isEqualTo(1);
+    }
+
+    @Test
+    void elLatidoRenuevaSoloLosTrabajosDeLaInstancia() {
+        assertThat(reporteJobRepository.latir("viva", ahora)).isEqualTo(1);
+        assertThat(reporteJobRepository.findIdsAbandonados(limite)).containsExactly(abandonado);
+    }
+
+    private ReporteJob job(String instancia, LocalDateTime latidoEn) {
+        ReporteJob job = new ReporteJob();
+        job.setAdministradorCanchaId(1L);
+        job.setTipo(ReporteJob.TipoReporte.AGRUPADO);
+        job.setAgrupacion("DIA");
+        job.setFechaDesde(LocalDate.now().minusDays(30));
+        job.setFechaHasta(LocalDate.now());
+        job.setEstado(ReporteJob.EstadoJob.EN_CURSO);
+        job.setProgreso(40);
+        job.setCreadoEn(latidoEn);
+        job.setInstancia(instancia);
+        job.setLatidoEn(latidoEn);
+        return entityManager.persist(job);
+    }
+}
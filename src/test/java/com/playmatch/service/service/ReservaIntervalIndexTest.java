@@ -0,0 +1,166 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.entity.AdministradorCancha;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.entity.Deporte;
+import com.playmatch.service.entity.Jugador;
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.entity.Role;
+import com.playmatch.service.entity.Usuario;
+import com.playmatch.service.event.CanchaCambiadaEvent;
+import com.playmatch.service.event.ReservaCambiadaEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El indice tiene que rechazar en memoria mientras esta vigente: solo la carga inicial va a la base,
+ * los cambios llegan por evento y un intervalo que la carga no cubre vuelve a consultarla.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:indice;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReservaIntervalIndex.class)
+class ReservaIntervalIndexTest {
+
+    @Autowired
+    private ReservaIntervalIndex indice;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Cancha cancha;
+    private Jugador jugador;
+    private LocalDateTime manana;
+
+    @BeforeEach
+    void sembrar() {
+        Usuario usuarioAdministrador = usuario("admin@playmatch.test", Role.ADMINISTRADOR_CANCHA);
+        AdministradorCancha administrador = new AdministradorCancha();
+        administrador.setNombre("Admin");
+        administrador.setTelefono("1100000000");
+        administrador.setUsuario(usuarioAdministrador);
+        entityManager.persist(administrador);
+
+        cancha = new Cancha();
+        cancha.setNombre("Cancha");
+        cancha.setDireccion("Calle 1");
+        cancha.setLatitud(-34.6);
+        cancha.setLongitud(-58.4);
+        cancha.setPrecioHora(BigDecimal.valueOf(100));
+        cancha.setTipo(Deporte.FUTBOL);
+        cancha.setAdministradorCancha(administrador);
+        entityManager.persist(cancha);
+
+        jugador = new Jugador();
+        jugador.setNombre("Jugador");
+        jugador.setTelefono("1100000001");
+        jugador.setUsuario(usuario("jugador@playmatch.test", Role.JUGADOR));
+        entityManager.persist(jugador);
+
+        manana = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        reservar(manana.withHour(10), Reserva.EstadoReserva.CONFIRMADA);
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void rechazaEnMemoriaDespuesDeLaPrimeraCarga() {
+        ReservaIntervalIndex.Consulta primera = indice.consultar(cancha.getId(), manana.withHour(10), manana.withHour(11));
+        assertThat(primera.conflicto()).isEqualTo(Reserva.EstadoReserva.CONFIRMADA);
+        assertThat(primera.leidaDeLaBase()).isTrue();
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+
+        estadisticas.clear();
+        ReservaIntervalIndex.Consulta conflicto = indice.consultar(cancha.getId(), manana.withHour(10).plusMinutes(30), manana.withHour(12));
+        ReservaIntervalIndex.Consulta libre = indice.consultar(cancha.getId(), manana.withHour(11), manana.withHour(12));
+        assertThat(conflicto.hayConflicto()).isTrue();
+        assertThat(conflicto.leidaDeLaBase()).isFalse();
+        assertThat(libre.hayConflicto()).isFalse();
+        assertThat(libre.leidaDeLaBase()).isFalse();
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void losEventosMantienenElIndiceSinIrALaBase() {
+        indice.consultar(cancha.getId(), manana.withHour(10), manana.withHour(11));
+        Reserva nueva = reservar(manana.withHour(15), Reserva.EstadoReserva.PENDIENTE);
+        estadisticas.clear();
+
+        indice.onReservaCambiada(ReservaCambiadaEvent.creada(nueva));
+        assertThat(indice.consultar(cancha.getId(), manana.withHour(15), manana.withHour(16)).conflicto())
+                .isEqualTo(Reserva.EstadoReserva.PENDIENTE);
+
+        nueva.setEstado(Reserva.EstadoReserva.CANCELADA);
+        indice.onReservaCambiada(ReservaCambiadaEvent.cambioDeEstado(nueva, Reserva.EstadoReserva.PENDIENTE));
+        assertThat(indice.consultar(cancha.getId(), manana.withHour(15), manana.withHour(16)).hayConflicto()).isFalse();
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void unIntervaloQueEmpezoAntesDeLaCargaVuelveALaBase() {
+        indice.consultar(cancha.getId(), manana.withHour(10), manana.withHour(11));
+        estadisticas.clear();
+
+        LocalDateTime ayer = manana.minusDays(2);
+        ReservaIntervalIndex.Consulta consulta = indice.consultar(cancha.getId(), ayer, ayer.plusHours(1));
+        assertThat(consulta.leidaDeLaBase()).isTrue();
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void laCanchaEliminadaSaleDelIndice() {
+        indice.consultar(cancha.getId(), manana.withHour(10), manana.withHour(11));
+        indice.onCanchaCambiada(new CanchaCambiadaEvent(cancha.getId(), cancha.getAdministradorCancha().getId(), true));
+        estadisticas.clear();
+
+        assertThat(indice.consultar(cancha.getId(), manana.withHour(10), manana.withHour(11)).leidaDeLaBase()).isTrue();
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Reserva reservar(LocalDateTime inicio, Reserva.EstadoReserva estado) {
+        Reserva reserva = new Reserva();
+        reserva.setJugador(jugador);
+        reserva.setCancha(cancha);
+        reserva.setInicio(inicio);
+        reserva.setFin(inicio.plusHours(1));
+        reserva.setEstado(estado);
+        reserva.setMonto(100.0);
+        return entityManager.persist(reserva);
+    }
+
+    private Usuario usuario(String email, Role role) {
+        Usuario usuario = new Usuario();
+        usuario.setEmail(email);
+        usuario.setPassword("x");
+        usuario.setRole(role);
+        return entityManager.persist(usuario);
+    }
+}
@@ -0,0 +1,278 @@
+package com.playmatch.service.service;
+
+import com.playmatch.service.dto.ConfirmacionLoteRequest;
+import com.playmatch.service.dto.PaginaReservas;
+import com.playmatch.service.dto.ReservaResponse;
+import com.playmatch.service.entity.AdministradorCancha;
+import com.playmatch.service.entity.Cancha;
+import com.playmatch.service.entity.Deporte;
+import com.playmatch.service.entity.Jugador;
+import com.playmatch.service.entity.Reserva;
+import com.playmatch.service.entity.Role;
+import com.playmatch.service.entity.Usuario;
+import com.playmatch.service.event.ReservasConfirmadasEnLoteEvent;
+import com.playmatch.service.repository.OrdenReservas;
+import com.playmatch.service.repository.ReservaRepository;
+import com.playmatch.service.repository.ReservaSpecifications;
+import com.playmatch.service.security.UserPrincipal;
+import com.playmatch.service.service.lock.CanchaLockStrategy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cuenta las sentencias que prepara Hibernate en cada listado de reservas. La pagina sale de una sola
+ * consulta con la proyeccion de cancha y jugador, asi que la cantidad no depende de cuantas filas devuelve:
+ * si alguna relacion volviera a cargarse fila por fila, estos numeros crecerian con los datos sembrados.
+ * Los listados del servicio suman una sentencia previa: el id del jugador o administrador, o si existe la cancha.
+ * La confirmacion en lote tampoco depende de cuantas reservas confirma: un UPDATE que devuelve los totales por dia.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:consultas;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReservationService.class)
+@RecordApplicationEvents
+class ReservationServiceConsultasTest {
+
+    private static final int CANCHAS = 3;
+    private static final int JUGADORES = 4;
+    private static final int RESERVAS_POR_JUGADOR_Y_CANCHA = 5;
+    private static final int RESERVAS = CANCHAS * JUGADORES * RESERVAS_POR_JUGADOR_Y_CANCHA;
+
+    // El listado no usa el indice, los horarios, el vencimiento ni el bloqueo
+    @MockitoBean
+    private ReservaIntervalIndex reservaIntervalIndex;
+
+    @MockitoBean
+    private HorarioCanchaCache horarioCanchaCache;
+
+    @MockitoBean
+    private VencimientoReservasService vencimientoReservasService;
+
+    @MockitoBean
+    private CanchaLockStrategy canchaLockStrategy;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private Statistics estadisticas;
+    private Usuario usuarioAdministrador;
+    private Usuario usuarioJugador;
+    private Long canchaId;
+
+    @BeforeEach
+    void sembrar() {
+        usuarioAdministrador = usuario("admin@playmatch.test", Role.ADMINISTRADOR_CANCHA);
+        AdministradorCancha administrador = new AdministradorCancha();
+        administrador.setNombre("Admin");
+        administrador.setTelefono("1100000000");
+        administrador.setUsuario(usuarioAdministrador);
+        entityManager.persist(administrador);
+
+        List<Cancha> canchas = new ArrayList<>();
+        for (int i = 0; i < CANCHAS; i++) {
+            Cancha cancha = new Cancha();
+            cancha.setNombre("Cancha " + i);
+            cancha.setDireccion("Calle " + i);
+            cancha.setLatitud(-34.6 + i * 0.01);
+            cancha.setLongitud(-58.4);
+            cancha.setPrecioHora(BigDecimal.valueOf(100));
+            cancha.setTipo(Deporte.FUTBOL);
+            cancha.setAdministradorCancha(administrador);
+            canchas.add(entityManager.persist(cancha));
+        }
+        canchaId = canchas.get(0).getId();
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        for (int j = 0; j < JUGADORES; j++) {
+            Usuario usuario = usuario("jugador" + j + "@playmatch.test", Role.JUGADOR);
+            if (j == 0) {
+                usuarioJugador = usuario;
+            }
+            Jugador jugador = new Jugador();
+            jugador.setNombre("Jugador " + j);
+            jugador.setTelefono("11000000" + j);
+            jugador.setUsuario(usuario);
+            entityManager.persist(jugador);
+
+            for (Cancha cancha : canchas) {
+                for (int r = 0; r < RESERVAS_POR_JUGADOR_Y_CANCHA; r++) {
+                    Reserva reserva = new Reserva();
+                    reserva.setJugador(jugador);
+                    reserva.setCancha(cancha);
+                    reserva.setInicio(base.plusDays(r).plusHours(j));
+                    reserva.setFin(base.plusDays(r).plusHours(j + 1));
+                    reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
+                    reserva.setMonto(100.0);
+                    entityManager.persist(reserva);
+                }
+            }
+        }
+        // Que los listados no encuentren nada ya cargado en el contexto de persistencia
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void limpiarAutenticacion() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void buscarPaginaEsUnaSolaConsulta() {
+        List<ReservaResponse> filas = contar(1, () -> reservaRepository.buscarPagina(
+                ReservaSpecifications.filtros(null, null, null, null, null), OrdenReservas.desde(null), false, null, null));
+        assertThat(filas).hasSize(RESERVAS);
+        assertThat(filas).allSatisfy(fila -> {
+            assertThat(fila.getCanchaNombre()).isNotNull();
+            assertThat(fila.getCliente()).isNotNull();
+        });
+    }
+
+    // El cursor se lee aparte para conocer el valor de ordenamiento de esa fila
+    @Test
+    void buscarPaginaConCursorSumaSoloLaLecturaDelCursor() {
+        List<ReservaResponse> primera = reservaRepository.buscarPagina(
+                ReservaSpecifications.filtros(null, null, null, null, null), OrdenReservas.desde(null), false, null, 10);
+        Long cursor = primera.get(primera.size() - 1).getId();
+
+        List<ReservaResponse> siguiente = contar(2, () -> reservaRepository.buscarPagina(
+                ReservaSpecifications.filtros(null, null, null, null, null), OrdenReservas.desde(null), false, cursor, 10));
+        assertThat(siguiente).hasSize(10);
+    }
+
+    @Test
+    void listarMisReservas() {
+        autenticar(usuarioJugador);
+        PaginaReservas pagina = contar(2, () -> reservationService.listarMisReservas(
+                null, null, null, null, null, null, null, null, false));
+        assertThat(pagina.getReservas()).hasSize(CANCHAS * RESERVAS_POR_JUGADOR_Y_CANCHA);
+    }
+
+    @Test
+    void listarReservasPorCancha() {
+        PaginaReservas pagina = contar(2, () -> reservationService.listarReservasPorCancha(
+                canchaId, null, null, null, null, null, null, null, null, false));
+        assertThat(pagina.getReservas()).hasSize(JUGADORES * RESERVAS_POR_JUGADOR_Y_CANCHA);
+    }
+
+    @Test
+    void listarReservasDelAdministrador() {
+        autenticar(usuarioAdministrador);
+        PaginaReservas pagina = contar(2, () -> reservationService.listarReservasDelAdministrador(
+                null, null, null, null, null, null, null, null, null, false));
+        assertThat(pagina.getReservas()).hasSize(RESERVAS);
+    }
+
+    @Test
+    void elTotalAgregaSoloElConteo() {
+        autenticar(usuarioAdministrador);
+        PaginaReservas pagina = contar(3, () -> reservationService.listarReservasDelAdministrador(
+                null, null, null, null, null, null, null, null, 10, true));
+        assertThat(pagina.getReservas()).hasSize(10);
+        assertThat(pagina.getTotal()).isEqualTo(RESERVAS);
+    }
+
+    @Test
+    void confirmarTodasEsUnSoloUpdate() {
+        entityManager.getEntityManager().createQuery("UPDATE Reserva r SET r.estado = 'PENDIENTE'").executeUpdate();
+        autenticar(usuarioAdministrador);
+
+        int confirmadas = contar(2, () -> reservationService.confirmarTodasReservasPendientes());
+        assertThat(confirmadas).isEqualTo(RESERVAS);
+
+        List<ReservasConfirmadasEnLoteEvent> publicados = eventos.stream(ReservasConfirmadasEnLoteEvent.class).toList();
+        assertThat(publicados).hasSize(1);
+        // Un total por cancha y dia, con la suma de los montos de ese dia
+        assertThat(publicados.get(0).getTotales()).hasSize(CANCHAS * RESERVAS_POR_JUGADOR_Y_CANCHA)
+                .allSatisfy(total -> {
+                    assertThat(total.cantidad()).isEqualTo(JUGADORES);
+                    assertThat(total.monto()).isEqualTo(JUGADORES * 100.0);
+                });
+        assertThat(entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(r) FROM Reserva r WHERE r.estado = 'PENDIENTE'", Long.class)
+                .getSingleResult()).isZero();
+    }
+
+    @Test
+    void confirmarPorRangoSoloTocaEsosDias() {
+        entityManager.getEntityManager().createQuery("UPDATE Reserva r SET r.estado = 'PENDIENTE'").executeUpdate();
+        autenticar(usuarioAdministrador);
+        ConfirmacionLoteRequest request = new ConfirmacionLoteRequest();
+        LocalDate manana = LocalDate.now().plusDays(1);
+        request.setFechaDesde(manana);
+        request.setFechaHasta(manana);
+
+        assertThat(reservationService.confirmarReservasEnLote(request)).isEqualTo(CANCHAS * JUGADORES);
+        assertThat(eventos.stream(ReservasConfirmadasEnLoteEvent.class).findFirst().orElseThrow().getTotales())
+                .extracting(ReservasConfirmadasEnLoteEvent.TotalDia::fecha)
+                .containsOnly(manana);
+    }
+
+    /**
+     * Ejecuta el listado con las estadisticas en cero y verifica cuantas sentencias preparo.
+     */
+    private <T> T contar(long sentenciasEsperadas, Supplier<T> listado) {
+        estadisticas.clear();
+        T resultado = listado.get();
+        assertThat(estadisticas.getPrepareStatementCount()).as("sentencias preparadas").isEqualTo(sentenciasEsperadas);
+        return resultado;
+    }
+
+    private Usuario usuario(String email, Role role) {
+        Usuario usuario = new Usuario();
+        usuario.setEmail(email);
+        usuario.setPassword("x");
+        usuario.setRole(role);
+        return entityManager.persist(usuario);
+    }
+
+    private void autenticar(Usuario usuario) {
+        UserPrincipal principal = new UserPrincipal(usuario);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
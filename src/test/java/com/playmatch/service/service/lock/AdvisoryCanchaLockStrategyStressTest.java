@@ -0,0 +1,42 @@
+package com.playmatch.service.service.lock;
+
+import com.playmatch.service.PlayMatchServiceApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * {@code pg_advisory_xact_lock} contra un PostgreSQL real levantado con Testcontainers.
+ * Sin Docker disponible la prueba se saltea.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(classes = PlayMatchServiceApplication.class, properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.enabled=false",
+        "security.jwt.secret=01234567890123456789012345678901",
+        "security.jwt.expiration-seconds=7200",
+        "otel.enabled=false",
+        "management.tracing.enabled=false",
+        "playmatch.reservas.lock.modo=advisory"
+})
+class AdvisoryCanchaLockStrategyStressTest extends ReservasConcurrentesStress {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Override
+    Class<? extends CanchaLockStrategy> estrategiaEsperada() {
+        return AdvisoryCanchaLockStrategy.class;
+    }
+}
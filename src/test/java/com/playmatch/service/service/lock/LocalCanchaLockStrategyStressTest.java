@@ -0,0 +1,28 @@
+package com.playmatch.service.service.lock;
+
+import com.playmatch.service.PlayMatchServiceApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Lock striping en memoria sobre H2 en modo PostgreSQL.
+ */
+@SpringBootTest(classes = PlayMatchServiceApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:lock-local;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "security.jwt.secret=01234567890123456789012345678901",
+        "security.jwt.expiration-seconds=7200",
+        "otel.enabled=false",
+        "management.tracing.enabled=false",
+        "playmatch.reservas.lock.modo=local"
+})
+class LocalCanchaLockStrategyStressTest extends ReservasConcurrentesStress {
+
+    @Override
+    Class<? extends CanchaLockStrategy> estrategiaEsperada() {
+        return LocalCanchaLockStrategy.class;
+    }
+}
@@ -0,0 +1,171 @@
+package com.playmatch.service.service.lock;
+
+import com.playmatch.service.dto.CanchaRequest;
+import com.playmatch.service.dto.RegisterRequest;
+import com.playmatch.service.dto.ReservaRequest;
+import com.playmatch.service.entity.Deporte;
+import com.playmatch.service.entity.Role;
+import com.playmatch.service.exception.BadRequestException;
+import com.playmatch.service.repository.UsuarioRepository;
+import com.playmatch.service.security.UserPrincipal;
+import com.playmatch.service.service.AuthService;
+import com.playmatch.service.service.CanchaService;
+import com.playmatch.service.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Escenario comun de las pruebas de estres de {@link CanchaLockStrategy}: en cada ronda {@link #HILOS} hilos
+ * piden a la vez franjas que se solapan entre si sobre la misma cancha y solo una puede quedar reservada.
+ * Cada subclase levanta el contexto con una estrategia distinta; al final se imprime el throughput.
+ */
+abstract class ReservasConcurrentesStress {
+
+    static final int HILOS = 16;
+    static final int RONDAS = 24;
+    // Corrimiento entre pedidos de una ronda: con turnos de una hora, los cuatro inicios se pisan todos
+    private static final int CORRIMIENTO_MINUTOS = 15;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CanchaService canchaService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CanchaLockStrategy canchaLockStrategy;
+
+    /**
+     * Estrategia que el contexto de la subclase tiene que haber elegido.
+     */
+    abstract Class<? extends CanchaLockStrategy> estrategiaEsperada();
+
+    @AfterEach
+    void limpiarAutenticacion() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void unaSolaReservaGanaCadaFranja() throws Exception {
+        assertThat(canchaLockStrategy).isInstanceOf(estrategiaEsperada());
+
+        String sufijo = estrategiaEsperada().getSimpleName().toLowerCase();
+        String admin = registrar("admin-" + sufijo + "@playmatch.test", Role.ADMINISTRADOR_CANCHA);
+        String jugador = registrar("jugador-" + sufijo + "@playmatch.test", Role.JUGADOR);
+
+        autenticar(admin);
+        Long canchaId = canchaService.crearCancha(cancha()).getId();
+        SecurityContextHolder.clearContext();
+
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        AtomicInteger rechazadas = new AtomicInteger();
+        LocalDate dia = LocalDate.now().plusDays(2);
+        long inicioNanos = System.nanoTime();
+        try {
+            for (int ronda = 0; ronda < RONDAS; ronda++) {
+                LocalDateTime base = dia.plusDays(ronda / 12).atTime(8 + ronda % 12, 0);
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<Boolean>> pedidos = new ArrayList<>();
+                for (int i = 0; i < HILOS; i++) {
+                    LocalDateTime inicio = base.plusMinutes((long) (i % 4) * CORRIMIENTO_MINUTOS);
+                    pedidos.add(hilos.submit(() -> {
+                        largada.await();
+                        return reservar(jugador, canchaId, inicio, rechazadas);
+                    }));
+                }
+                largada.countDown();
+
+                int ganadoras = 0;
+                for (Future<Boolean> pedido : pedidos) {
+                    if (pedido.get(30, TimeUnit.SECONDS)) {
+                        ganadoras++;
+                    }
+                }
+                assertThat(ganadoras).as("reservas aceptadas en la ronda %d", ronda).isEqualTo(1);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNanos));
+
+        int intentos = HILOS * RONDAS;
+        assertThat(rechazadas.get()).isEqualTo(intentos - RONDAS);
+        System.out.printf("%s: %d intentos con %d hilos en %d ms, %.0f intentos/s, %d reservas aceptadas%n",
+                estrategiaEsperada().getSimpleName(), intentos, HILOS, millis, intentos * 1000.0 / millis, RONDAS);
+    }
+
+    /**
+     * Intenta la reserva con el jugador autenticado en este hilo. Solo se toleran los rechazos esperables:
+     * solapamiento o espera del bloqueo agotada; cualquier otra excepcion hace fallar la prueba.
+     */
+    private boolean reservar(String email, Long canchaId, LocalDateTime inicio, AtomicInteger rechazadas) {
+        autenticar(email);
+        try {
+            ReservaRequest request = new ReservaRequest();
+            request.setCanchaId(canchaId);
+            request.setInicio(inicio);
+            request.setFin(inicio.plusHours(1));
+            reservationService.crearReserva(request);
+            return true;
+        } catch (BadRequestException e) {
+            rechazadas.incrementAndGet();
+            return false;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private String registrar(String email, Role role) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword("secreto123");
+        request.setNombre("Prueba");
+        request.setTelefono("1100000000");
+        request.setRole(role);
+        authService.register(request);
+        return email;
+    }
+
+    private void autenticar(String email) {
+        UserPrincipal principal = new UserPrincipal(usuarioRepository.findByEmail(email).orElseThrow());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static CanchaRequest cancha() {
+        CanchaRequest request = new CanchaRequest();
+        request.setNombre("Cancha estres");
+        request.setDireccion("Av. Siempre Viva 742");
+        request.setLatitud(-34.6037);
+        request.setLongitud(-58.3816);
+        request.setPrecioHora(BigDecimal.valueOf(100));
+        request.setTipo(Deporte.TENIS);
+        request.setHorarioApertura(LocalTime.of(0, 0));
+        request.setHorarioCierre(LocalTime.of(23, 59));
+        return request;
+    }
+}